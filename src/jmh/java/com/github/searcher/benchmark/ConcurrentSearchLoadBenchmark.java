@@ -0,0 +1,102 @@
+package com.github.searcher.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.searcher.dto.SearchRequest;
+import com.github.searcher.service.GitHubService;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Load test: each operation is a burst of {@code concurrency} simultaneous searches through the
+ * full pipeline, once per persistence scheduler mode. JMH reports the time per burst; the
+ * per-search p50/p99 of each iteration are logged at the end of the iteration.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = 1)
+@Measurement(iterations = 20, batchSize = 1)
+@Fork(1)
+public class ConcurrentSearchLoadBenchmark {
+
+    @Param({"1000"})
+    private int concurrency;
+
+    @Param({"bounded-elastic", "virtual"})
+    private String scheduler;
+
+    private StubbedSearchApplication application;
+    private GitHubService gitHubService;
+    private SimpleMeterRegistry latencyRegistry;
+    private Timer searchLatency;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = new StubbedSearchApplication(new String[] {GitHubPayloads.searchPage(100, 0)},
+                "github.api.pool.max-connections=200",
+                "github.api.pool.pending-acquire-max-count=" + concurrency * 2,
+                "github.persistence.scheduler=" + scheduler,
+                "logging.level.com.github.searcher.benchmark=INFO");
+        gitHubService = application.getBean(GitHubService.class);
+        // Insert the rows up front; concurrent first inserts of the same ids would only measure key conflicts.
+        gitHubService.searchAndSaveRepositories(new SearchRequest("spring", "java", "stars")).block(Duration.ofSeconds(30));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetLatencies() {
+        latencyRegistry = new SimpleMeterRegistry();
+        searchLatency = Timer.builder("benchmark.search")
+                .publishPercentiles(0.5, 0.99)
+                .register(latencyRegistry);
+    }
+
+    @TearDown(Level.Iteration)
+    public void logLatencies() {
+        HistogramSnapshot snapshot = searchLatency.takeSnapshot();
+        StringBuilder line = new StringBuilder("searches=").append(snapshot.count());
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            line.append(String.format(" p%.0f=%.1fms", percentile.percentile() * 100, percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        log.info("{} {}", scheduler, line);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public Long burst() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> Mono.defer(() -> {
+                    Timer.Sample sample = Timer.start(latencyRegistry);
+                    return gitHubService.searchAndSaveRepositories(new SearchRequest("spring", "java", "stars"))
+                            .doOnSuccess(result -> sample.stop(searchLatency));
+                }), concurrency)
+                .count()
+                .block(Duration.ofMinutes(2));
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.searcher.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Builds search responses shaped like what GitHub actually returns: every item carries the
+ * full owner object, the URL templates, topics and license, of which we persist eight fields.
+ */
+final class GitHubPayloads {
+
+    private GitHubPayloads() {
+    }
+
+    static byte[] searchPage(int items) {
+        return searchPage(items, 0).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String searchPage(int items, long firstId) {
+        StringBuilder json = new StringBuilder(items * 6_000);
+        json.append("{\"total_count\":").append(items * 10).append(",\"incomplete_results\":false,\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendItem(json, firstId + i + 1);
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void appendItem(StringBuilder json, long id) {
+        String owner = "owner" + (id % 97);
+        String name = "repo-" + id;
+        String fullName = owner + "/" + name;
+        String api = "https://api.github.com/repos/" + fullName;
+        String updatedAt = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).plusMinutes(id).toString();
+
+        json.append("{\"id\":").append(id)
+                .append(",\"node_id\":\"R_kgDO").append(id).append('"')
+                .append(",\"name\":\"").append(name).append('"')
+                .append(",\"full_name\":\"").append(fullName).append('"')
+                .append(",\"private\":false,\"owner\":{\"login\":\"").append(owner).append('"')
+                .append(",\"id\":").append(id % 97)
+                .append(",\"node_id\":\"MDQ6VXNlcj").append(id % 97).append('"')
+                .append(",\"avatar_url\":\"https://avatars.githubusercontent.com/u/").append(id % 97).append("?v=4\"")
+                .append(",\"gravatar_id\":\"\"");
+        for (String link : new String[] {"url", "html_url", "followers_url", "following_url", "gists_url", "starred_url",
+                "subscriptions_url", "organizations_url", "repos_url", "events_url", "received_events_url"}) {
+            json.append(",\"").append(link).append("\":\"https://api.github.com/users/").append(owner).append('/').append(link).append('"');
+        }
+        json.append(",\"type\":\"User\",\"site_admin\":false}")
+                .append(",\"html_url\":\"https://github.com/").append(fullName).append('"')
+                .append(",\"description\":\"Benchmark repository ").append(id).append(" with a description of typical length\"")
+                .append(",\"fork\":false");
+        for (String link : new String[] {"url", "forks_url", "keys_url", "collaborators_url", "teams_url", "hooks_url",
+                "issue_events_url", "events_url", "assignees_url", "branches_url", "tags_url", "blobs_url", "git_tags_url",
+                "git_refs_url", "trees_url", "statuses_url", "languages_url", "stargazers_url", "contributors_url",
+                "subscribers_url", "subscription_url", "commits_url", "git_commits_url", "comments_url",
+                "issue_comment_url", "contents_url", "compare_url", "merges_url", "archive_url", "downloads_url",
+                "issues_url", "pulls_url", "milestones_url", "notifications_url", "labels_url", "releases_url",
+                "deployments_url"}) {
+            json.append(",\"").append(link).append("\":\"").append(api).append('/').append(link).append('"');
+        }
+        json.append(",\"created_at\":\"2020-01-01T00:00:00Z\"")
+                .append(",\"updated_at\":\"").append(updatedAt).append('"')
+                .append(",\"pushed_at\":\"").append(updatedAt).append('"')
+                .append(",\"git_url\":\"git://github.com/").append(fullName).append(".git\"")
+                .append(",\"ssh_url\":\"git@github.com:").append(fullName).append(".git\"")
+                .append(",\"clone_url\":\"https://github.com/").append(fullName).append(".git\"")
+                .append(",\"homepage\":null,\"size\":").append(id * 13 % 100_000)
+                .append(",\"stargazers_count\":").append(id * 31 % 50_000)
+                .append(",\"watchers_count\":").append(id * 31 % 50_000)
+                .append(",\"language\":\"").append(id % 3 == 0 ? "Java" : id % 3 == 1 ? "Kotlin" : "Go").append('"')
+                .append(",\"has_issues\":true,\"has_projects\":true,\"has_downloads\":true,\"has_wiki\":true,\"has_pages\":false")
+                .append(",\"has_discussions\":false,\"forks_count\":").append(id * 7 % 5_000)
+                .append(",\"mirror_url\":null,\"archived\":false,\"disabled\":false,\"open_issues_count\":").append(id % 50)
+                .append(",\"license\":{\"key\":\"apache-2.0\",\"name\":\"Apache License 2.0\",\"spdx_id\":\"Apache-2.0\"")
+                .append(",\"url\":\"https://api.github.com/licenses/apache-2.0\",\"node_id\":\"MDc6TGljZW5zZTI=\"}")
+                .append(",\"allow_forking\":true,\"is_template\":false,\"web_commit_signoff_required\":false")
+                .append(",\"topics\":[\"spring\",\"reactive\",\"search\",\"github-api\"]")
+                .append(",\"visibility\":\"public\",\"forks\":").append(id * 7 % 5_000)
+                .append(",\"open_issues\":").append(id % 50)
+                .append(",\"watchers\":").append(id * 31 % 50_000)
+                .append(",\"default_branch\":\"main\",\"score\":1.0}");
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.searcher.benchmark;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.searcher.model.GitHubRepository;
+
+/**
+ * The in-memory part of an upsert: matching a fetched page against the stored rows and
+ * deciding what changed via {@link GitHubRepository#equals(Object)}/{@link GitHubRepository#hashCode()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryDiffBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+
+    @Param({"0", "10", "100"})
+    private int changedPercent;
+
+    private List<GitHubRepository> stored;
+    private List<GitHubRepository> fetched;
+
+    @Setup
+    public void setUp() {
+        stored = new ArrayList<>(size);
+        fetched = new ArrayList<>(size);
+        OffsetDateTime baseTime = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < size; i++) {
+            long id = i + 1;
+            GitHubRepository repository = new GitHubRepository(id, "repo-" + id, "Benchmark repository " + id,
+                    "owner" + (id % 97), "Java", (int) (id * 31 % 50_000), (int) (id * 7 % 5_000), baseTime.plusMinutes(id));
+            stored.add(repository);
+            GitHubRepository copy = repository.copy();
+            if (i * 100 < changedPercent * size) {
+                copy.setStarsCount(copy.getStarsCount() + 1);
+            }
+            fetched.add(copy);
+        }
+    }
+
+    /**
+     * What upsertAll does: index the stored rows by id and compare each fetched row with equals.
+     */
+    @Benchmark
+    public int diffByIdThenEquals() {
+        Map<Long, GitHubRepository> storedById = new HashMap<>(stored.size() * 2);
+        for (GitHubRepository repository : stored) {
+            storedById.put(repository.getId(), repository);
+        }
+        int changed = 0;
+        for (GitHubRepository repository : fetched) {
+            GitHubRepository existing = storedById.get(repository.getId());
+            if (existing == null || !existing.equals(repository)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Diff through a set of whole entities, which exercises hashCode over all eight fields.
+     */
+    @Benchmark
+    public int diffByEntityHashSet() {
+        Set<GitHubRepository> storedSet = new HashSet<>(stored);
+        int changed = 0;
+        for (GitHubRepository repository : fetched) {
+            if (!storedSet.contains(repository)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.searcher.benchmark;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.searcher.config.CodecConfig;
+import com.github.searcher.model.GitHubRepository;
+
+/**
+ * Encoding and decoding a bulk repository list in each negotiable format: JSON with ISO dates as
+ * served by default, and CBOR/Smile with epoch-millisecond dates. The payload size of each
+ * format is listed in the README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryEncodingBenchmark {
+
+    private static final TypeReference<List<GitHubRepository>> LIST = new TypeReference<>() { };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"1000"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private List<GitHubRepository> repositories;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = switch (format) {
+            case "cbor" -> CodecConfig.binaryMapper(Jackson2ObjectMapperBuilder.cbor());
+            case "smile" -> CodecConfig.binaryMapper(Jackson2ObjectMapperBuilder.smile());
+            default -> Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        };
+        repositories = new ArrayList<>(size);
+        OffsetDateTime baseTime = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < size; i++) {
+            long id = i + 1;
+            repositories.add(new GitHubRepository(id, "repo-" + id, "Benchmark repository " + id + " with a description of typical length",
+                    "owner" + (id % 97), i % 3 == 0 ? "Java" : "Go", (int) (id * 31 % 50_000), (int) (id * 7 % 5_000), baseTime.plusMinutes(id)));
+        }
+        encoded = mapper.writeValueAsBytes(repositories);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(repositories);
+    }
+
+    @Benchmark
+    public List<GitHubRepository> decode() throws Exception {
+        return mapper.readValue(encoded, LIST);
+    }
+}
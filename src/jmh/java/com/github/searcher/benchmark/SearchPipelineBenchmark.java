@@ -0,0 +1,71 @@
+package com.github.searcher.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.searcher.dto.SearchRequest;
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.service.GitHubService;
+
+/**
+ * End-to-end cost of {@link GitHubService#searchAndSaveRepositories(SearchRequest)}: the real
+ * WebClient against a local stub of the search API, decoding, and the upsert into in-memory H2.
+ * <p>
+ * {@code unchanged} serves the same page every time, so after the first call every row is only
+ * compared. {@code updated} alternates between two pages that differ in every star count, so
+ * every call also writes a full batch of updates. The stub runs in the benchmark JVM; its
+ * allocations are part of the reported rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchPipelineBenchmark {
+
+    @Param({"unchanged", "updated"})
+    private String mode;
+
+    private StubbedSearchApplication application;
+    private GitHubService gitHubService;
+    private SearchRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String page = GitHubPayloads.searchPage(100, 0);
+        String[] pages = "updated".equals(mode)
+                ? new String[] {page, page.replace("\"stargazers_count\":", "\"stargazers_count\":1")}
+                : new String[] {page};
+        application = new StubbedSearchApplication(pages);
+        gitHubService = application.getBean(GitHubService.class);
+        request = new SearchRequest("spring", "java", "stars");
+        // Insert the rows once so the measured calls exercise the diff and update paths.
+        gitHubService.searchAndSaveRepositories(request).block(Duration.ofSeconds(30));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public List<GitHubRepository> searchAndSave() {
+        return gitHubService.searchAndSaveRepositories(request).block(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.searcher.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.service.GitHubSearchResponseDecoder;
+
+/**
+ * Decoding cost of one search page: the former JsonNode tree mapping against the streaming
+ * decoder. Run with the gc profiler (the jmh profile does this by default) and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per decoded page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchResponseDecodingBenchmark {
+
+    /** Reactor Netty hands the body over in chunks of roughly this size. */
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    @Param({"100"})
+    private int items;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = GitHubPayloads.searchPage(items);
+    }
+
+    @Benchmark
+    public List<GitHubRepository> jsonNodeTree() throws IOException {
+        JsonNode response = objectMapper.readTree(payload);
+        List<GitHubRepository> repositories = new ArrayList<>();
+        for (JsonNode item : response.get("items")) {
+            GitHubRepository repository = mapJsonNode(item);
+            if (repository != null) {
+                repositories.add(repository);
+            }
+        }
+        return repositories;
+    }
+
+    @Benchmark
+    public List<GitHubRepository> streamingDecoder() throws IOException {
+        GitHubSearchResponseDecoder decoder = new GitHubSearchResponseDecoder();
+        List<GitHubRepository> repositories = new ArrayList<>();
+        for (int offset = 0; offset < payload.length; offset += CHUNK_SIZE) {
+            repositories.addAll(decoder.feed(ByteBuffer.wrap(payload, offset, Math.min(CHUNK_SIZE, payload.length - offset))));
+        }
+        repositories.addAll(decoder.endOfInput());
+        return repositories;
+    }
+
+    /**
+     * The mapping GitHubService used before the streaming decoder, kept here as the baseline.
+     */
+    static GitHubRepository mapJsonNode(JsonNode node) {
+        if (node == null || !node.has("id") || !node.has("name") || !node.has("owner") || !node.get("owner").has("login")) {
+            return null;
+        }
+
+        Long id = node.get("id").asLong();
+        String name = node.get("name").asText();
+        String description = node.has("description") && !node.get("description").isNull() ? node.get("description").asText() : null;
+        String owner = node.get("owner").get("login").asText();
+        String language = node.has("language") && !node.get("language").isNull() ? node.get("language").asText() : null;
+        Integer stars = node.has("stargazers_count") ? node.get("stargazers_count").asInt() : 0;
+        Integer forks = node.has("forks_count") ? node.get("forks_count").asInt() : 0;
+        OffsetDateTime lastUpdated = node.has("updated_at") && !node.get("updated_at").isNull() ?
+                OffsetDateTime.parse(node.get("updated_at").asText(), DateTimeFormatter.ISO_OFFSET_DATE_TIME) : null;
+
+        return new GitHubRepository(id, name, description, owner, language, stars, forks, lastUpdated);
+    }
+}
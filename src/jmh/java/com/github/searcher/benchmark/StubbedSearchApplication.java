@@ -0,0 +1,60 @@
+package com.github.searcher.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.github.searcher.GithubRepositorySearcherApplication;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * The application without a web server, wired to a local Reactor Netty stub of the search API
+ * (serving {@code pages} round-robin) and to in-memory H2.
+ */
+final class StubbedSearchApplication implements AutoCloseable {
+
+    private final DisposableServer stubServer;
+    private final ConfigurableApplicationContext context;
+
+    StubbedSearchApplication(String[] pages, String... extraProperties) {
+        AtomicLong served = new AtomicLong();
+        stubServer = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/search/repositories", (req, res) -> res
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendString(Mono.just(pages[(int) (served.getAndIncrement() % pages.length)]))))
+                .bindNow();
+
+        List<String> properties = new ArrayList<>(List.of(
+                "github.api.base-url=http://localhost:" + stubServer.port(),
+                "github.api.search.repositories.path=/search/repositories",
+                "github.api.cache.enabled=false",
+                "github.api.rate-limit.search.requests=1000000",
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "logging.level.root=WARN"));
+        properties.addAll(List.of(extraProperties));
+        context = new SpringApplicationBuilder(GithubRepositorySearcherApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        stubServer.disposeNow();
+    }
+}
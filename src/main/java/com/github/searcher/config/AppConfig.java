@@ -1,20 +1,101 @@
 package com.github.searcher.config;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.github.searcher.service.GitHubMetrics;
+import com.github.searcher.service.GitHubRateLimitGovernor;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 @Configuration
 public class AppConfig {
-	
+
     @Value("${github.api.base-url}")
     private String githubApiBaseUrl;
 
+    @Value("${github.api.pool.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${github.api.pool.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${github.api.pool.pending-acquire-timeout:10s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${github.api.pool.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${github.api.pool.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${github.api.pool.evict-in-background:30s}")
+    private Duration evictInBackground;
+
+    @Value("${github.api.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${github.api.read-timeout:30s}")
+    private Duration readTimeout;
+
+    @Value("${github.api.response-timeout:30s}")
+    private Duration responseTimeout;
+
+    @Value("${github.api.http2-enabled:true}")
+    private boolean http2Enabled;
+
+    @Value("${github.api.compression-enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${github.api.max-in-memory-size:16MB}")
+    private DataSize maxInMemorySize;
+
+    /**
+     * Dedicated, bounded pool for GitHub calls. Idle and old connections are evicted in the
+     * background so we do not hand out sockets GitHub has already closed.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider gitHubConnectionProvider() {
+        return ConnectionProvider.builder("github-api")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .build();
+    }
+
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(GitHubRateLimitGovernor rateLimitGovernor, GitHubMetrics gitHubMetrics, ConnectionProvider gitHubConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(gitHubConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .compress(compressionEnabled)
+                .doOnConnected(connection ->
+                        connection.addHandlerLast(new ReadTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+        if (http2Enabled && githubApiBaseUrl.startsWith("https")) {
+            // HTTP/2 is negotiated over TLS via ALPN; servers without it fall back to HTTP/1.1.
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+
         return WebClient.builder()
                 .baseUrl(githubApiBaseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()))
+                .filter(rateLimitGovernor.filter())
+                .filter(gitHubMetrics.upstreamFilter())
                 .build();
     }
 }
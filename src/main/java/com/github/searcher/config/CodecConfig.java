@@ -0,0 +1,91 @@
+package com.github.searcher.config;
+
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Binary encodings for bulk consumers, negotiated with {@code Accept}: CBOR
+ * ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}).
+ */
+@Configuration
+public class CodecConfig implements WebFluxConfigurer {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        // The mime types must be explicit: without them the Jackson codecs fall back to
+        // application/json and would read and write JSON bodies with the binary mapper.
+        ObjectMapper smileMapper = binaryMapper(Jackson2ObjectMapperBuilder.smile());
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, APPLICATION_SMILE));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, APPLICATION_SMILE));
+
+        ObjectMapper cborMapper = binaryMapper(Jackson2ObjectMapperBuilder.cbor());
+        configurer.customCodecs().register(new CborEncoder(cborMapper));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+    }
+
+    /**
+     * CBOR encoder that is only chosen when CBOR was explicitly negotiated. Custom codecs are
+     * consulted before the default JSON one, so an encoder that also accepted an unspecified media
+     * type would answer {@code Accept: *}{@code /*} requests, and errors, in CBOR.
+     * <p>
+     * {@link Jackson2CborEncoder} also rejects every {@link #encode} call, which the WebFlux message
+     * writer uses even for a single value. The binary endpoints only answer with {@link Mono}s, so
+     * those are written as one CBOR document.
+     */
+    static class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+            return mimeType != null && super.canEncode(elementType, mimeType);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                       MimeType mimeType, Map<String, Object> hints) {
+            if (!(inputStream instanceof Mono<?> value)) {
+                return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+            }
+            return value.map(item -> encodeValue(item, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+    }
+
+    /**
+     * Writes dates as epoch milliseconds instead of ISO strings, which is shorter on the wire and
+     * cheaper to parse. Reads them back in UTC.
+     */
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS,
+                        DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.searcher.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersistenceConfig {
+
+    @Value("${github.persistence.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Enables JDBC batching so a page of upserts is flushed as a handful of
+     * statements. Explicit spring.jpa.properties.* values still take precedence.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer batchingHibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+
+    /**
+     * Databases created by Hibernate before migrations existed already have the table but no
+     * history; baseline them at version 1 so only the later migrations run.
+     */
+    @Bean
+    public FlywayConfigurationCustomizer baselineExistingSchemaCustomizer() {
+        return configuration -> configuration.baselineOnMigrate(true);
+    }
+}
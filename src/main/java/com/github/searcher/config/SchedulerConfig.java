@@ -0,0 +1,69 @@
+package com.github.searcher.config;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@Slf4j
+public class SchedulerConfig {
+
+    public enum PersistenceSchedulerMode {
+        BOUNDED_ELASTIC,
+        VIRTUAL
+    }
+
+    @Value("${github.persistence.scheduler:bounded-elastic}")
+    private PersistenceSchedulerMode mode;
+
+    @Value("${github.persistence.virtual.pinned-threshold:20ms}")
+    private Duration pinnedThreshold;
+
+    /**
+     * Scheduler for blocking repository calls. Wrapped so that submitted, active and pending
+     * (queued) tasks are published as github.persistence.scheduler.tasks.* meters, tagged by mode.
+     * <p>
+     * {@code bounded-elastic} shares Reactor's pool, capped at 10 threads per core. {@code virtual}
+     * runs each call on its own virtual thread, so concurrency is bounded by the JDBC connection
+     * pool: callers beyond its size park cheaply while waiting for a connection.
+     */
+    @Bean
+    public Scheduler persistenceScheduler(MeterRegistry meterRegistry) {
+        Scheduler scheduler = switch (mode) {
+            case BOUNDED_ELASTIC -> Schedulers.boundedElastic();
+            case VIRTUAL -> Schedulers.fromExecutorService(virtualThreadExecutor(), "github-persistence");
+        };
+        log.info("Running blocking repository calls on the {} scheduler.", mode);
+        return Micrometer.timedScheduler(scheduler, meterRegistry, "github.persistence",
+                Tags.of("mode", mode.name().toLowerCase(Locale.ROOT).replace('_', '-')));
+    }
+
+    /**
+     * Records virtual threads pinned to their carrier (e.g. blocking inside synchronized) for longer
+     * than the threshold. Only active in {@code virtual} mode.
+     */
+    @Bean(destroyMethod = "close")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, pinnedThreshold);
+        if (mode == PersistenceSchedulerMode.VIRTUAL) {
+            monitor.start();
+        }
+        return monitor;
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("github-persistence-", 0).factory());
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.searcher.config;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events into the github.persistence.virtual.pinned timer.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Timer pinnedTimer;
+    private final Duration threshold;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedTimer = Timer.builder("github.persistence.virtual.pinned")
+                .description("Time virtual threads stayed pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    public synchronized void start() {
+        if (recordingStream != null) {
+            return;
+        }
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold);
+        recordingStream.onEvent(PINNED_EVENT, event -> pinnedTimer.record(event.getDuration()));
+        recordingStream.startAsync();
+        log.info("Recording virtual thread pinning longer than {}.", threshold);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package com.github.searcher.controller;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.github.searcher.config.CodecConfig;
+import com.github.searcher.dto.BatchSearchRequest;
+import com.github.searcher.dto.BatchSearchResult;
+import com.github.searcher.dto.RepositoryGrowth;
+import com.github.searcher.dto.RepositoryPage;
 import com.github.searcher.dto.SearchRequest;
 import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositoryChange;
 import com.github.searcher.service.GitHubService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,6 +36,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -35,6 +47,8 @@ import reactor.core.publisher.Mono;
 public class GitHubController {
 
     private final GitHubService gitHubService;
+    private final RepositoryJsonWriter jsonWriter;
+    private final RepositoryListCache listCache;
 
     @Operation(summary = "Search GitHub repositories and save/update them",
                description = "Searches GitHub for repositories based on provided criteria and stores the results in the database.")
@@ -48,17 +62,55 @@ public class GitHubController {
                  content = @Content(mediaType = "application/json",
                  schema = @Schema(example = "{\"message\": \"An unexpected error occurred\"}")))
     @PostMapping("/search")
-    public Mono<ResponseEntity<Map<String, Object>>> searchGitHubRepositories(@Valid @RequestBody SearchRequest searchRequest) {
+    public Mono<ResponseEntity<DataBuffer>> searchGitHubRepositories(@Valid @RequestBody SearchRequest searchRequest,
+                                                                     ServerHttpResponse response) {
         log.info("Received search request: {}", searchRequest);
+        return gitHubService.searchAndSaveRepositories(searchRequest)
+                .map(repositories -> json(jsonWriter.writeSearchResult(repositories, response.bufferFactory())));
+    }
+
+    @Operation(summary = "Search GitHub repositories and save/update them, answering in CBOR or Smile",
+               description = "Same as POST /api/github/search, selected by 'Accept: application/cbor' or 'application/x-jackson-smile'. Dates are epoch milliseconds.")
+    @PostMapping(value = "/search", produces = {MediaType.APPLICATION_CBOR_VALUE, CodecConfig.APPLICATION_SMILE_VALUE})
+    public Mono<Map<String, Object>> searchGitHubRepositoriesBinary(@Valid @RequestBody SearchRequest searchRequest) {
+        log.info("Received binary search request: {}", searchRequest);
         return gitHubService.searchAndSaveRepositories(searchRequest)
                 .map(repositories -> {
-                    Map<String, Object> response = new HashMap<>();
+                    Map<String, Object> response = new LinkedHashMap<>();
                     response.put("message", "Repositories fetched and saved successfully");
                     response.put("repositories", repositories);
-                    return ResponseEntity.ok(response);
+                    return response;
                 });
     }
 
+    @Operation(summary = "Search GitHub repositories and stream them as they are saved",
+               description = "Same as POST /api/github/search, but writes each repository as soon as its page has been persisted instead of buffering the whole result. Supports newline-delimited JSON and Server-Sent Events.")
+    @ApiResponse(responseCode = "200", description = "Stream of fetched and saved repositories",
+                 content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = GitHubRepository.class)),
+                            @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = GitHubRepository.class))})
+    @ApiResponse(responseCode = "400", description = "Invalid search request",
+                 content = @Content(mediaType = "application/json",
+                 schema = @Schema(example = "{\"message\": \"Validation error\", \"errors\": {\"query\": \"must not be blank\"}}")))
+    @PostMapping(value = "/search/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<GitHubRepository> streamGitHubRepositories(@Valid @RequestBody SearchRequest searchRequest) {
+        log.info("Received streaming search request: {}", searchRequest);
+        return gitHubService.streamAndSaveRepositories(searchRequest);
+    }
+
+    @Operation(summary = "Run a batch of searches and stream each result once it is saved",
+               description = "Runs up to 100 searches with bounded, rate-limit-aware concurrency. Each search is saved as soon as it completes, and its result is streamed as newline-delimited JSON right after, in completion order; 'index' gives its position in the request. A repository found by several searches is written once. A failed search carries an 'error' instead of failing the batch.")
+    @ApiResponse(responseCode = "200", description = "One result per search",
+                 content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                 schema = @Schema(implementation = BatchSearchResult.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid batch request",
+                 content = @Content(mediaType = "application/json",
+                 schema = @Schema(example = "{\"message\": \"Validation error\", \"errors\": {\"requests[0].query\": \"Query cannot be empty\"}}")))
+    @PostMapping(value = "/search/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchSearchResult> searchGitHubRepositoriesBatch(@Valid @RequestBody BatchSearchRequest batchSearchRequest) {
+        log.info("Received batch search request with {} searches", batchSearchRequest.getRequests().size());
+        return gitHubService.searchAndSaveBatch(batchSearchRequest.getRequests());
+    }
+
     @Operation(summary = "Get stored GitHub repositories",
                description = "Retrieves a list of GitHub repositories already stored in the database, with optional filtering and sorting.")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved stored repositories",
@@ -68,7 +120,101 @@ public class GitHubController {
                  content = @Content(mediaType = "application/json",
                  schema = @Schema(example = "{\"message\": \"An unexpected error occurred\"}")))
     @GetMapping("/repositories")
-    public Mono<ResponseEntity<List<GitHubRepository>>> getStoredRepositories(
+    public Mono<ResponseEntity<DataBuffer>> getStoredRepositories(
+            @Parameter(description = "Filter repositories by programming language")
+            @RequestParam(required = false) String language,
+            @Parameter(description = "Filter repositories by minimum number of stars")
+            @RequestParam(required = false) Integer minStars,
+            @Parameter(description = "Sort repositories by a specific field (e.g., 'stars', 'forks'; 'trending' ranks by recent star growth)",
+                       schema = @Schema(type = "string", allowableValues = {"stars", "forks", "updated", "trending"}))
+            @RequestParam(required = false) String sort,
+            ServerHttpResponse response) {
+        log.info("Received request to get stored repositories with language: {}, minStars: {}, sort: {}", language, minStars, sort);
+        return listCache.get(language, minStars, sort, gitHubService.getStoredRepositories(language, minStars, sort))
+                .map(listing -> json(response.bufferFactory().wrap(listing)));
+    }
+
+    @Operation(summary = "Get stored GitHub repositories in CBOR or Smile",
+               description = "Same list as GET /api/github/repositories, selected by 'Accept: application/cbor' or 'application/x-jackson-smile'. Dates are epoch milliseconds.")
+    @GetMapping(value = "/repositories", params = {"!limit", "!q"}, produces = {MediaType.APPLICATION_CBOR_VALUE, CodecConfig.APPLICATION_SMILE_VALUE})
+    public Mono<List<GitHubRepository>> getStoredRepositoriesBinary(
+            @Parameter(description = "Filter repositories by programming language")
+            @RequestParam(required = false) String language,
+            @Parameter(description = "Filter repositories by minimum number of stars")
+            @RequestParam(required = false) Integer minStars,
+            @Parameter(description = "Sort repositories by a specific field (e.g., 'stars', 'forks'; 'trending' ranks by recent star growth)",
+                       schema = @Schema(type = "string", allowableValues = {"stars", "forks", "updated", "trending"}))
+            @RequestParam(required = false) String sort) {
+        log.info("Received binary request to get stored repositories with language: {}, minStars: {}, sort: {}", language, minStars, sort);
+        return gitHubService.getStoredRepositories(language, minStars, sort);
+    }
+
+    @Operation(summary = "Get stored GitHub repositories one page at a time",
+               description = "Keyset-paginated variant of GET /api/github/repositories, selected by the 'limit' parameter. Pass the returned 'nextCursor' as 'cursor' to fetch the following page.")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of stored repositories",
+                 content = @Content(mediaType = "application/json",
+                 schema = @Schema(implementation = RepositoryPage.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid or mismatched cursor",
+                 content = @Content(mediaType = "application/json",
+                 schema = @Schema(example = "{\"error\": \"400 BAD_REQUEST\", \"message\": \"Invalid cursor\"}")))
+    @GetMapping(value = "/repositories", params = {"limit", "!q"})
+    public Mono<ResponseEntity<DataBuffer>> getStoredRepositoriesPage(
+            @Parameter(description = "Filter repositories by programming language")
+            @RequestParam(required = false) String language,
+            @Parameter(description = "Filter repositories by minimum number of stars")
+            @RequestParam(required = false) Integer minStars,
+            @Parameter(description = "Sort repositories by a specific field (e.g., 'stars', 'forks'; 'trending' ranks by recent star growth)",
+                       schema = @Schema(type = "string", allowableValues = {"stars", "forks", "updated", "trending"}))
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Continuation token returned as 'nextCursor' by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of repositories per page (1-1000)")
+            @RequestParam Integer limit,
+            ServerHttpResponse response) {
+        log.info("Received request to get a page of stored repositories with language: {}, minStars: {}, sort: {}, limit: {}", language, minStars, sort, limit);
+        return gitHubService.getStoredRepositoriesPage(language, minStars, sort, cursor, limit)
+                .map(page -> json(jsonWriter.writePage(page, response.bufferFactory())));
+    }
+
+    /**
+     * Pages are JSON documents, and the stream already walks every page; without this mapping an
+     * NDJSON request with {@code limit} would be answered with a JSON page.
+     */
+    @Operation(hidden = true)
+    @GetMapping(value = "/repositories", params = {"limit", "!q"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<GitHubRepository> streamStoredRepositoriesPage() {
+        return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "'limit' and 'cursor' select a JSON page; stream all matching repositories without them"));
+    }
+
+    @Operation(summary = "Full-text search over stored GitHub repositories",
+               description = "Ranks stored repositories by relevance of their name, owner and description to the 'q' terms, best match first. Selected by the 'q' parameter.")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved matching stored repositories",
+                 content = @Content(mediaType = "application/json",
+                 schema = @Schema(implementation = GitHubRepository.class)))
+    @GetMapping(value = "/repositories", params = "q")
+    public Mono<ResponseEntity<DataBuffer>> searchStoredRepositories(
+            @Parameter(description = "Search terms matched against name, owner and description")
+            @RequestParam String q,
+            @Parameter(description = "Filter repositories by programming language")
+            @RequestParam(required = false) String language,
+            @Parameter(description = "Filter repositories by minimum number of stars")
+            @RequestParam(required = false) Integer minStars,
+            @Parameter(description = "Maximum number of repositories to return (1-1000)")
+            @RequestParam(required = false) Integer limit,
+            ServerHttpResponse response) {
+        log.info("Received full-text search over stored repositories for '{}' with language: {}, minStars: {}, limit: {}", q, language, minStars, limit);
+        return gitHubService.searchStoredRepositories(q, language, minStars, limit)
+                .map(repositories -> json(jsonWriter.writeList(repositories, response.bufferFactory())));
+    }
+
+    @Operation(summary = "Stream stored GitHub repositories",
+               description = "Streams every stored repository matching the filters as newline-delimited JSON, reading the table in bounded keyset pages.")
+    @ApiResponse(responseCode = "200", description = "Stream of stored repositories",
+                 content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                 schema = @Schema(implementation = GitHubRepository.class)))
+    @GetMapping(value = "/repositories", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<GitHubRepository> streamStoredRepositories(
             @Parameter(description = "Filter repositories by programming language")
             @RequestParam(required = false) String language,
             @Parameter(description = "Filter repositories by minimum number of stars")
@@ -76,8 +222,39 @@ public class GitHubController {
             @Parameter(description = "Sort repositories by a specific field (e.g., 'stars', 'forks')",
                        schema = @Schema(type = "string", allowableValues = {"stars", "forks", "updated"}))
             @RequestParam(required = false) String sort) {
-        log.info("Received request to get stored repositories with language: {}, minStars: {}, sort: {}", language, minStars, sort);
-        return gitHubService.getStoredRepositories(language, minStars, sort)
-                .map(ResponseEntity::ok);
+        log.info("Received request to stream stored repositories with language: {}, minStars: {}, sort: {}", language, minStars, sort);
+        return gitHubService.streamStoredRepositories(language, minStars, sort);
+    }
+
+    @Operation(summary = "Stream changes to stored GitHub repositories",
+               description = "Streams every insert and update recorded after version 'since', oldest first, each with the repository as currently stored. Pass the last 'version' received as 'since' to continue.")
+    @ApiResponse(responseCode = "200", description = "Stream of changes",
+                 content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = RepositoryChange.class)),
+                            @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = RepositoryChange.class))})
+    @GetMapping(value = "/changes", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<RepositoryChange> streamChanges(
+            @Parameter(description = "Version of the last change already seen; 0 for the whole log")
+            @RequestParam(defaultValue = "0") long since) {
+        log.info("Received request to stream repository changes since version {}", since);
+        return gitHubService.streamChanges(since);
+    }
+
+    @Operation(summary = "Fastest-growing stored GitHub repositories",
+               description = "Returns stored repositories ordered by stars gained over the last 'days' days, read from daily rollups of the change log. Growth is measured from the last counts recorded on or before the start of the window, or from the first recorded counts for repositories first seen within it.")
+    @ApiResponse(responseCode = "200", description = "Repositories with their growth, fastest first")
+    @GetMapping("/repositories/growth")
+    public Mono<List<RepositoryGrowth>> getFastestGrowingRepositories(
+            @Parameter(description = "Filter repositories by programming language")
+            @RequestParam(required = false) String language,
+            @Parameter(description = "Length of the window in days (default 30, max 365)")
+            @RequestParam(required = false) Integer days,
+            @Parameter(description = "Maximum number of repositories to return (default 20, max 1000)")
+            @RequestParam(required = false) Integer limit) {
+        log.info("Received request for fastest-growing repositories with language: {}, days: {}, limit: {}", language, days, limit);
+        return gitHubService.getFastestGrowing(language, days, limit);
+    }
+
+    private static ResponseEntity<DataBuffer> json(DataBuffer body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
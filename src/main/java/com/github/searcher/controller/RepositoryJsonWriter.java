@@ -0,0 +1,136 @@
+package com.github.searcher.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.searcher.dto.RepositoryPage;
+import com.github.searcher.model.GitHubRepository;
+
+/**
+ * Writes repository list responses by concatenating pre-serialized JSON fragments into a single
+ * buffer from the response's factory (pooled Netty memory under Reactor Netty).
+ * <p>
+ * Each repository is serialized once with the application's {@link ObjectMapper} and the bytes
+ * are cached by id together with the version they were written from. A row whose fields differ
+ * from the cached version is serialized again, so the output is always what Jackson would write
+ * for the row. Envelopes are fixed byte strings, and the buffer is sized up front, so a response
+ * is one allocation plus a copy per fragment.
+ */
+@Component
+public class RepositoryJsonWriter {
+
+    private static final byte[] LIST_PREFIX = ascii("[");
+    private static final byte[] LIST_SUFFIX = ascii("]");
+    private static final byte[] SEARCH_PREFIX = ascii("{\"message\":\"Repositories fetched and saved successfully\",\"repositories\":[");
+    private static final byte[] SEARCH_SUFFIX = ascii("]}");
+    private static final byte[] PAGE_PREFIX = ascii("{\"repositories\":[");
+    private static final byte[] PAGE_SUFFIX = ascii("],\"nextCursor\":");
+    private static final byte[] OBJECT_END = ascii("}");
+    private static final byte SEPARATOR = ',';
+
+    private final ObjectMapper objectMapper;
+    private final boolean cacheEnabled;
+    private final Cache<Long, Fragment> fragments;
+
+    public RepositoryJsonWriter(ObjectMapper objectMapper,
+                                @Value("${github.json.fragment-cache.enabled:true}") boolean cacheEnabled,
+                                @Value("${github.json.fragment-cache.max-entries:100000}") long maxEntries) {
+        this.objectMapper = objectMapper;
+        this.cacheEnabled = cacheEnabled;
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /** A JSON array of repositories. */
+    public DataBuffer writeList(List<GitHubRepository> repositories, DataBufferFactory bufferFactory) {
+        return write(LIST_PREFIX, repositories, LIST_SUFFIX, bufferFactory);
+    }
+
+    /** {@link #writeList} as a byte array, for responses that are kept beyond one request. */
+    public byte[] writeListBytes(List<GitHubRepository> repositories) {
+        DataBuffer buffer = writeList(repositories, DefaultDataBufferFactory.sharedInstance);
+        byte[] json = new byte[buffer.readableByteCount()];
+        buffer.read(json);
+        return json;
+    }
+
+    /** The {@code {"message", "repositories"}} envelope of POST /search. */
+    public DataBuffer writeSearchResult(List<GitHubRepository> repositories, DataBufferFactory bufferFactory) {
+        return write(SEARCH_PREFIX, repositories, SEARCH_SUFFIX, bufferFactory);
+    }
+
+    /** A {@link RepositoryPage}. */
+    public DataBuffer writePage(RepositoryPage page, DataBufferFactory bufferFactory) {
+        byte[] cursor = serialize(page.getNextCursor());
+        byte[] suffix = new byte[PAGE_SUFFIX.length + cursor.length + OBJECT_END.length];
+        System.arraycopy(PAGE_SUFFIX, 0, suffix, 0, PAGE_SUFFIX.length);
+        System.arraycopy(cursor, 0, suffix, PAGE_SUFFIX.length, cursor.length);
+        System.arraycopy(OBJECT_END, 0, suffix, PAGE_SUFFIX.length + cursor.length, OBJECT_END.length);
+        return write(PAGE_PREFIX, page.getRepositories(), suffix, bufferFactory);
+    }
+
+    long cachedFragments() {
+        return fragments.estimatedSize();
+    }
+
+    private DataBuffer write(byte[] prefix, List<GitHubRepository> repositories, byte[] suffix, DataBufferFactory bufferFactory) {
+        byte[][] parts = new byte[repositories.size()][];
+        int size = prefix.length + suffix.length + Math.max(0, parts.length - 1);
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = fragment(repositories.get(i));
+            size += parts[i].length;
+        }
+        DataBuffer buffer = bufferFactory.allocateBuffer(size);
+        buffer.write(prefix);
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                buffer.write(SEPARATOR);
+            }
+            buffer.write(parts[i]);
+        }
+        buffer.write(suffix);
+        return buffer;
+    }
+
+    private byte[] fragment(GitHubRepository repository) {
+        if (!cacheEnabled || repository.getId() == null) {
+            return serialize(repository);
+        }
+        Fragment cached = fragments.getIfPresent(repository.getId());
+        if (cached != null && cached.version().equals(repository)) {
+            return cached.json();
+        }
+        byte[] json = serialize(repository);
+        fragments.put(repository.getId(), new Fragment(repository.copy(), json));
+        return json;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + value, e);
+        }
+    }
+
+    private static byte[] ascii(String json) {
+        return json.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @param version copy of the row the bytes were written from; {@code equals} covers every serialized field
+     */
+    private record Fragment(GitHubRepository version, byte[] json) {
+    }
+}
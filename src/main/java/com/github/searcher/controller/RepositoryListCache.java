@@ -0,0 +1,158 @@
+package com.github.searcher.controller;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositorySort;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+import com.github.searcher.service.ReadModelUpdatedEvent;
+import com.github.searcher.service.RepositoryTrending;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process cache of serialized GET /repositories list responses, keyed by lower-cased language,
+ * minimum stars and sort. A hit is answered with the stored bytes, without a query or any JSON
+ * writing, and is counted in {@code cache.gets{cache="repositories.list",result="hit|miss"}}.
+ * <p>
+ * Entries are dropped after every committed upsert that can change them: listings over all
+ * languages, listings of a changed row's language, and listings that contain a changed row, so a
+ * row leaving a language or falling below {@code minStars} is covered too. The in-memory read
+ * model applies an upsert after it commits, so the same entries are dropped again once its
+ * snapshot with the changed rows is in place. A result read while either invalidation ran is
+ * returned but not stored. The trending sort is not cached; it is read from
+ * memory already.
+ */
+@Component
+@Slf4j
+public class RepositoryListCache {
+
+    static final String NAME = "repositories.list";
+
+    private final boolean enabled;
+    private final RepositoryJsonWriter jsonWriter;
+    private final Cache<Key, Listing> listings;
+    /** Bumped before each invalidation, so a result read across one is not stored. */
+    private final AtomicLong generation = new AtomicLong();
+
+    public RepositoryListCache(@Value("${github.repositories.cache.enabled:true}") boolean enabled,
+                               @Value("${github.repositories.cache.max-size:64MB}") DataSize maxSize,
+                               RepositoryJsonWriter jsonWriter,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.jsonWriter = jsonWriter;
+        this.listings = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Listing listing) -> listing.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, listings, NAME);
+    }
+
+    /**
+     * The listing as a JSON array, from the cache or from {@code query}, which is only subscribed
+     * to on a miss.
+     */
+    public Mono<byte[]> get(String language, Integer minStars, String sort, Mono<List<GitHubRepository>> query) {
+        if (!enabled || RepositoryTrending.isTrendingSort(sort)) {
+            return query.map(jsonWriter::writeListBytes);
+        }
+        Key key = new Key(language == null ? "" : language.toLowerCase(Locale.ROOT), minStars, RepositorySort.from(sort));
+        return Mono.defer(() -> {
+            Listing cached = listings.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached.json());
+            }
+            long readAt = generation.get();
+            return query.map(repositories -> {
+                Listing listing = new Listing(jsonWriter.writeListBytes(repositories),
+                        repositories.stream().mapToLong(GitHubRepository::getId).sorted().toArray());
+                store(key, listing, readAt);
+                return listing.json();
+            });
+        });
+    }
+
+    /**
+     * Stores the listing unless an invalidation has started since it was read. The generation is
+     * checked inside the map's atomic compute and again afterwards: an invalidation that starts
+     * after the second check scans the map only once the entry is in it.
+     */
+    private void store(Key key, Listing listing, long readAt) {
+        listings.asMap().compute(key, (ignored, current) -> generation.get() == readAt ? listing : current);
+        if (generation.get() != readAt) {
+            listings.asMap().remove(key, listing);
+        }
+    }
+
+    @EventListener
+    public void onUpsert(RepositoriesUpsertedEvent event) {
+        invalidate(event.getChanged());
+    }
+
+    @EventListener
+    public void onReadModelUpdated(ReadModelUpdatedEvent event) {
+        invalidate(event.getChanged());
+    }
+
+    private void invalidate(List<GitHubRepository> changed) {
+        if (!enabled || changed.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        Set<String> languages = changed.stream()
+                .filter(row -> row.getLanguage() != null)
+                .map(row -> row.getLanguage().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        long[] ids = changed.stream().mapToLong(GitHubRepository::getId).toArray();
+        long before = listings.estimatedSize();
+        listings.asMap().entrySet().removeIf(entry -> entry.getKey().language().isEmpty()
+                || languages.contains(entry.getKey().language())
+                || entry.getValue().containsAny(ids));
+        log.debug("Invalidated {} cached repository listings after {} changed rows.", before - listings.estimatedSize(), changed.size());
+    }
+
+    long size() {
+        return listings.estimatedSize();
+    }
+
+    /**
+     * @param language lower-cased, or empty for all languages
+     */
+    private record Key(String language, Integer minStars, RepositorySort sort) {
+    }
+
+    /**
+     * @param ids sorted ids of the listed rows
+     */
+    private record Listing(byte[] json, long[] ids) {
+
+        int weight() {
+            return json.length + ids.length * Long.BYTES;
+        }
+
+        boolean containsAny(long[] candidates) {
+            for (long id : candidates) {
+                if (Arrays.binarySearch(ids, id) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
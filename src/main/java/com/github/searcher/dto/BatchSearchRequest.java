@@ -0,0 +1,24 @@
+package com.github.searcher.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Several searches executed together, each saved and streamed back as soon as it completes.")
+public class BatchSearchRequest {
+
+    @Valid
+    @NotEmpty(message = "requests cannot be empty")
+    @Size(max = 100, message = "A batch cannot contain more than 100 searches")
+    @Schema(description = "The searches to run; each result is returned under the index of its search")
+    private List<SearchRequest> requests;
+}
@@ -0,0 +1,29 @@
+package com.github.searcher.dto;
+
+import java.util.List;
+
+import com.github.searcher.model.GitHubRepository;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of one search within a batch.")
+public class BatchSearchResult {
+
+    @Schema(description = "Position of the search in the batch request", example = "0")
+    private int index;
+
+    @Schema(description = "The search as submitted")
+    private SearchRequest request;
+
+    @Schema(description = "Saved repositories for this search, in GitHub's order; empty if the search failed")
+    private List<GitHubRepository> repositories;
+
+    @Schema(description = "Why this search failed, or null if it succeeded", example = "GitHub API rate limit exceeded. Please try again later.")
+    private String error;
+}
@@ -0,0 +1,29 @@
+package com.github.searcher.dto;
+
+import java.time.LocalDate;
+
+import com.github.searcher.model.GitHubRepository;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Growth of a stored repository since a baseline day.")
+public class RepositoryGrowth {
+
+    @Schema(description = "The repository as currently stored")
+    private GitHubRepository repository;
+
+    @Schema(description = "Stars gained since the baseline day", example = "1200")
+    private int starsGrowth;
+
+    @Schema(description = "Forks gained since the baseline day", example = "85")
+    private int forksGrowth;
+
+    @Schema(description = "UTC day the growth is measured from: the last day with recorded counts at or before the start of the window, or the first recorded day if the repository was first seen inside it", example = "2024-06-01")
+    private LocalDate since;
+}
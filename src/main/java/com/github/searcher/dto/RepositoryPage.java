@@ -0,0 +1,23 @@
+package com.github.searcher.dto;
+
+import java.util.List;
+
+import com.github.searcher.model.GitHubRepository;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One keyset-paginated page of stored repositories.")
+public class RepositoryPage {
+
+    @Schema(description = "Repositories on this page, in the requested sort order")
+    private List<GitHubRepository> repositories;
+
+    @Schema(description = "Opaque token to pass as 'cursor' for the next page; null on the last page", example = "U1RBUlN8MTAwMHwxMjM0NQ")
+    private String nextCursor;
+}
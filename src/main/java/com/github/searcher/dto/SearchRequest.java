@@ -1,6 +1,8 @@
 package com.github.searcher.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,4 +23,13 @@ public class SearchRequest {
 
     @Schema(description = "Optional: Sort results by 'stars', 'forks', or 'updated'", example = "stars", allowableValues = {"stars", "forks", "updated"})
     private String sort;
-}
\ No newline at end of file
+
+    @Min(value = 1, message = "maxResults must be at least 1")
+    @Max(value = 1000, message = "maxResults cannot exceed 1000, GitHub's search result cap")
+    @Schema(description = "Optional: Follow GitHub pagination (100 per page) until this many results are fetched. Omit to fetch only the first page.", example = "500")
+    private Integer maxResults;
+
+    public SearchRequest(String query, String language, String sort) {
+        this(query, language, sort, null);
+    }
+}
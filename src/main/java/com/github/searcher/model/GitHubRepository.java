@@ -1,14 +1,18 @@
 package com.github.searcher.model;
 
 import java.time.OffsetDateTime;
+import java.util.Locale;
 import java.util.Objects;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -16,7 +20,6 @@ import lombok.NoArgsConstructor;
 @Table(name="github_repositories")
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Schema(description = "Represents a GitHub repository, either fetched from the API or stored locally.")
 public class GitHubRepository {
 
@@ -52,9 +55,54 @@ public class GitHubRepository {
     @Column(name = "last_updated", nullable = false)
     @Schema(description = "Date and time when the repository was last updated (ISO 8601 format)", example = "2024-07-09T14:30:00Z")
     private OffsetDateTime lastUpdated;
-    
+
+    /**
+     * Lower-cased copy of {@link #language}, kept in sync on every write so the language filter
+     * can use the (language_lower, sort key, id) indexes instead of evaluating lower(language) per row.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    @Column(name = "language_lower")
+    private String languageLower;
+
+    /** ETag of the last single-repository response, sent back as If-None-Match by the refresher. */
+    @JsonIgnore
+    @Schema(hidden = true)
+    @Column(name = "etag")
+    private String etag;
+
+    /** When the row was last written from, or confirmed unchanged by, GitHub. */
+    @JsonIgnore
+    @Schema(hidden = true)
+    @Column(name = "last_checked")
+    private OffsetDateTime lastChecked;
+
+    /** After a failed refresh check, the refresher leaves the row alone until this time. */
+    @JsonIgnore
+    @Schema(hidden = true)
+    @Column(name = "retry_after")
+    private OffsetDateTime retryAfter;
+
+    public GitHubRepository(Long id, String name, String description, String ownerName, String language,
+                            Integer starsCount, Integer forksCount, OffsetDateTime lastUpdated) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.ownerName = ownerName;
+        this.language = language;
+        this.starsCount = starsCount;
+        this.forksCount = forksCount;
+        this.lastUpdated = lastUpdated;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncLanguageLower() {
+        this.languageLower = language == null ? null : language.toLowerCase(Locale.ROOT);
+    }
 
     public void updateFrom(GitHubRepository other) {
+        this.name = other.name;
         this.description = other.description;
         this.ownerName = other.ownerName;
         this.language = other.language;
@@ -63,6 +111,10 @@ public class GitHubRepository {
         this.lastUpdated = other.lastUpdated;
     }
 
+    public GitHubRepository copy() {
+        return new GitHubRepository(id, name, description, ownerName, language, starsCount, forksCount, lastUpdated);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,85 @@
+package com.github.searcher.model;
+
+import java.time.OffsetDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One entry of the change feed: a stored repository was inserted or updated.
+ */
+@Entity
+@Table(name = "repository_changes")
+@Getter
+@Setter
+@NoArgsConstructor
+@Schema(description = "An insert or update of a stored repository, as emitted by the change feed.")
+public class RepositoryChange {
+
+    public enum Type {
+        INSERT,
+        UPDATE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "repository_changes_seq")
+    @SequenceGenerator(name = "repository_changes_seq", sequenceName = "repository_changes_seq", allocationSize = 50)
+    @Column(name = "version")
+    @Schema(description = "Position in the feed; pass the last one seen as 'since' to continue", example = "1051")
+    private Long version;
+
+    @JsonIgnore
+    @Column(name = "repository_id", nullable = false)
+    private Long repositoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    @Schema(description = "Whether the repository was first stored or changed", example = "UPDATE")
+    private Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    @Schema(description = "When the change was recorded", example = "2024-07-09T14:30:00Z")
+    private OffsetDateTime changedAt;
+
+    @Column(name = "stars_count")
+    @Schema(description = "Stars at the time of the change", example = "75000")
+    private Integer starsCount;
+
+    @Column(name = "forks_count")
+    @Schema(description = "Forks at the time of the change", example = "20000")
+    private Integer forksCount;
+
+    /**
+     * Current state of the repository; read-only, loaded with the feed.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "repository_id", insertable = false, updatable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @Schema(description = "The repository as currently stored")
+    private GitHubRepository repository;
+
+    public RepositoryChange(GitHubRepository repository, Type type, OffsetDateTime changedAt) {
+        this.repositoryId = repository.getId();
+        this.type = type;
+        this.changedAt = changedAt;
+        this.starsCount = repository.getStarsCount();
+        this.forksCount = repository.getForksCount();
+    }
+}
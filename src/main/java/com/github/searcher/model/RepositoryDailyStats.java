@@ -0,0 +1,51 @@
+package com.github.searcher.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last observed star and fork counts of a repository on one UTC day, rolled up from the change log.
+ */
+@Entity
+@Table(name = "repository_daily_stats")
+@IdClass(RepositoryDailyStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepositoryDailyStats {
+
+    @Id
+    @Column(name = "repository_id")
+    private Long repositoryId;
+
+    @Id
+    @Column(name = "stats_day")
+    private LocalDate day;
+
+    @Column(name = "stars_count", nullable = false)
+    private Integer starsCount;
+
+    @Column(name = "forks_count")
+    private Integer forksCount;
+
+    @Column(name = "last_version", nullable = false)
+    private Long lastVersion;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long repositoryId;
+        private LocalDate day;
+    }
+}
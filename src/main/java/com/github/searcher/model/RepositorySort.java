@@ -0,0 +1,56 @@
+package com.github.searcher.model;
+
+import org.springframework.data.domain.Sort;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sort keys accepted by the stored-repositories endpoints. All keys sort descending.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RepositorySort {
+
+    STARS("starsCount"),
+    FORKS("forksCount"),
+    LAST_UPDATED("lastUpdated");
+
+    private static final Sort LANGUAGE_FIRST = Sort.by(Sort.Order.asc("languageLower"));
+
+    private final String property;
+
+    public static RepositorySort from(String sort) {
+        if (sort == null || sort.isEmpty()) {
+            return STARS;
+        }
+        switch (sort.toLowerCase()) {
+            case "forks":
+                return FORKS;
+            case "updated":
+            case "lastupdated":
+                return LAST_UPDATED;
+            case "stars":
+            default:
+                return STARS;
+        }
+    }
+
+    /**
+     * Sort of every stored listing, paged or not: the id tie-breaker makes the order total, as
+     * keyset pagination needs, and rows without a key come last on every database, as if their key
+     * were -1, matching the {@code (key DESC NULLS LAST, id)} indexes.
+     */
+    public Sort toKeysetSort() {
+        return Sort.by(Sort.Order.desc(property).nullsLast(), Sort.Order.asc("id"));
+    }
+
+    /**
+     * {@link #toKeysetSort()} for a listing that may be filtered to one language. The language
+     * column is constant within such a listing, but leading with it lets H2, like PostgreSQL, read
+     * the matching {@code (language_lower, key DESC NULLS LAST, id)} index in order instead of sorting.
+     */
+    public Sort toKeysetSort(boolean byLanguage) {
+        return byLanguage ? LANGUAGE_FIRST.and(toKeysetSort()) : toKeysetSort();
+    }
+}
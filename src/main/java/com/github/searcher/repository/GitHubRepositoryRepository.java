@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 import com.github.searcher.model.GitHubRepository;
 
 @Repository
-public interface GitHubRepositoryRepository extends JpaRepository<GitHubRepository, Long>, JpaSpecificationExecutor<GitHubRepository> {
+public interface GitHubRepositoryRepository extends JpaRepository<GitHubRepository, Long>, JpaSpecificationExecutor<GitHubRepository>,
+        GitHubRepositoryRepositoryCustom {
 
 }
@@ -0,0 +1,89 @@
+package com.github.searcher.repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.searcher.dto.RepositoryGrowth;
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositoryChange;
+
+public interface GitHubRepositoryRepositoryCustom {
+
+    /**
+     * Inserts or updates a page of fetched repositories in a single transaction.
+     * Existing rows are loaded with one query and diffed in memory, so the
+     * resulting writes can be flushed as JDBC batches. Each insert and update is
+     * also appended to the change log.
+     */
+    @Transactional
+    UpsertResult upsertAll(Collection<GitHubRepository> fetchedRepositories);
+
+    /**
+     * Records one refresh batch: rows GitHub reported as not modified only get their
+     * {@code last_checked} bumped, in one bulk statement; re-fetched rows are diffed like
+     * {@link #upsertAll} and also store their new ETag, if the response had one. Ids that are no longer stored are ignored.
+     * Updates are appended to the change log.
+     */
+    @Transactional
+    UpsertResult applyRefresh(Collection<GitHubRepository> fetchedRepositories, Collection<Long> notModifiedIds,
+                              OffsetDateTime checkedAt);
+
+    /**
+     * Keeps rows whose refresh check failed out of the stale selection until {@code retryAfter},
+     * in one bulk statement. Returns how many rows were updated.
+     */
+    @Transactional
+    int postponeRefresh(Collection<Long> ids, OffsetDateTime retryAfter);
+
+    /**
+     * Up to {@code limit} rows matching {@code spec} in {@code sort} order. Unlike the
+     * {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor} finders, this honours
+     * each order's null handling, so keyset pages can put null counts last on every database.
+     */
+    @Transactional(readOnly = true)
+    List<GitHubRepository> findSorted(Specification<GitHubRepository> spec, Sort sort, int limit);
+
+    /**
+     * All rows matching {@code spec} in {@code sort} order, honouring null handling like
+     * {@link #findSorted(Specification, Sort, int)}.
+     */
+    @Transactional(readOnly = true)
+    List<GitHubRepository> findSorted(Specification<GitHubRepository> spec, Sort sort);
+
+    /**
+     * Up to {@code limit} change-log entries after {@code since}, in version order, with their
+     * repositories. Entries of transactions still in flight in this process, and everything after
+     * them, are held back, so a reader that continues from the last version it saw never skips one.
+     */
+    @Transactional(readOnly = true)
+    List<RepositoryChange> findChangesAfter(long since, int limit);
+
+    /**
+     * {@link #findChangesAfter(long, int)} restricted to entries recorded at or after
+     * {@code changedSince}.
+     */
+    @Transactional(readOnly = true)
+    List<RepositoryChange> findChangesAfter(long since, OffsetDateTime changedSince, int limit);
+
+    /**
+     * Rolls up to {@code limit} change-log entries past the last rolled-up version into
+     * {@code repository_daily_stats}, keeping the last counts per repository and UTC day.
+     * Returns the number of entries consumed; fewer than {@code limit} means the log is caught up.
+     */
+    @Transactional
+    int rollUpDailyStats(int limit);
+
+    /**
+     * Stored repositories ordered by stars gained since {@code start}, measured against their
+     * daily stats on the last recorded day at or before it, or on the first recorded day for
+     * repositories first seen later. Language matching is case-insensitive; null means any.
+     */
+    @Transactional(readOnly = true)
+    List<RepositoryGrowth> findGrowth(String language, LocalDate start, int limit);
+}
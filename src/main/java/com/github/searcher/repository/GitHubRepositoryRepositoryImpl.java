@@ -0,0 +1,382 @@
+package com.github.searcher.repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaOrder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.searcher.dto.RepositoryGrowth;
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositoryChange;
+import com.github.searcher.model.RepositoryDailyStats;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class GitHubRepositoryRepositoryImpl implements GitHubRepositoryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Guards {@link #inFlightVersions} and {@link #highestVersion}; never held across a database call. */
+    private final ReentrantLock versionsLock = new ReentrantLock();
+    /** Lowest change version of each transaction that has not completed yet, with how many transactions hold it. */
+    private final NavigableMap<Long, Integer> inFlightVersions = new TreeMap<>();
+    /** Highest change version handed out in this process so far. */
+    private long highestVersion;
+
+    @Override
+    @Transactional
+    public UpsertResult upsertAll(Collection<GitHubRepository> fetchedRepositories) {
+        Map<Long, GitHubRepository> fetchedById = new LinkedHashMap<>();
+        for (GitHubRepository fetchedRepo : fetchedRepositories) {
+            fetchedById.put(fetchedRepo.getId(), fetchedRepo);
+        }
+        if (fetchedById.isEmpty()) {
+            return UpsertResult.empty();
+        }
+
+        Map<Long, GitHubRepository> existingById = findAllById(fetchedById.keySet());
+        OffsetDateTime checkedAt = OffsetDateTime.now(ZoneOffset.UTC);
+
+        List<GitHubRepository> repositories = new ArrayList<>(fetchedById.size());
+        List<GitHubRepository> inserted = new ArrayList<>();
+        List<GitHubRepository> updated = new ArrayList<>();
+        List<GitHubRepository> unchanged = new ArrayList<>();
+
+        for (GitHubRepository fetchedRepo : fetchedById.values()) {
+            GitHubRepository existingRepo = existingById.get(fetchedRepo.getId());
+            if (existingRepo == null) {
+                fetchedRepo.setLastChecked(checkedAt);
+                entityManager.persist(fetchedRepo);
+                inserted.add(fetchedRepo);
+                repositories.add(fetchedRepo);
+            } else if (!existingRepo.equals(fetchedRepo)) {
+                // Managed entity: the change is picked up by dirty checking and batched on flush.
+                existingRepo.updateFrom(fetchedRepo);
+                existingRepo.setLastChecked(checkedAt);
+                updated.add(existingRepo);
+                repositories.add(existingRepo);
+            } else {
+                unchanged.add(existingRepo);
+                repositories.add(existingRepo);
+            }
+        }
+
+        recordChanges(inserted, updated, checkedAt);
+        log.debug("Upserted {} repositories: {} inserted, {} updated, {} unchanged.",
+                repositories.size(), inserted.size(), updated.size(), unchanged.size());
+        return new UpsertResult(repositories, inserted, updated, unchanged);
+    }
+
+    @Override
+    @Transactional
+    public UpsertResult applyRefresh(Collection<GitHubRepository> fetchedRepositories, Collection<Long> notModifiedIds,
+                                     OffsetDateTime checkedAt) {
+        if (!notModifiedIds.isEmpty()) {
+            // Runs before any row is loaded, so no managed entity is left holding the old value.
+            entityManager.createQuery("UPDATE GitHubRepository r SET r.lastChecked = :checkedAt WHERE r.id IN :ids")
+                    .setParameter("checkedAt", checkedAt)
+                    .setParameter("ids", notModifiedIds)
+                    .executeUpdate();
+        }
+        if (fetchedRepositories.isEmpty()) {
+            return UpsertResult.empty();
+        }
+
+        Map<Long, GitHubRepository> existingById = findAllById(
+                fetchedRepositories.stream().map(GitHubRepository::getId).collect(Collectors.toSet()));
+        List<GitHubRepository> repositories = new ArrayList<>(fetchedRepositories.size());
+        List<GitHubRepository> updated = new ArrayList<>();
+        List<GitHubRepository> unchanged = new ArrayList<>();
+
+        for (GitHubRepository fetchedRepo : fetchedRepositories) {
+            GitHubRepository existingRepo = existingById.get(fetchedRepo.getId());
+            if (existingRepo == null) {
+                // Refresh only follows stored rows; one that disappeared meanwhile is not re-created.
+                continue;
+            }
+            if (!existingRepo.equals(fetchedRepo)) {
+                existingRepo.updateFrom(fetchedRepo);
+                updated.add(existingRepo);
+            } else {
+                unchanged.add(existingRepo);
+            }
+            if (fetchedRepo.getEtag() != null) {
+                existingRepo.setEtag(fetchedRepo.getEtag());
+            }
+            existingRepo.setLastChecked(checkedAt);
+            repositories.add(existingRepo);
+        }
+
+        recordChanges(Collections.emptyList(), updated, checkedAt);
+        log.debug("Refreshed {} repositories: {} not modified, {} updated, {} unchanged.",
+                notModifiedIds.size() + repositories.size(), notModifiedIds.size(), updated.size(), unchanged.size());
+        return new UpsertResult(repositories, Collections.emptyList(), updated, unchanged);
+    }
+
+    @Override
+    @Transactional
+    public int postponeRefresh(Collection<Long> ids, OffsetDateTime retryAfter) {
+        return entityManager.createQuery("UPDATE GitHubRepository r SET r.retryAfter = :retryAfter WHERE r.id IN :ids")
+                .setParameter("retryAfter", retryAfter)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GitHubRepository> findSorted(Specification<GitHubRepository> spec, Sort sort, int limit) {
+        return sortedQuery(spec, sort).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GitHubRepository> findSorted(Specification<GitHubRepository> spec, Sort sort) {
+        return sortedQuery(spec, sort).getResultList();
+    }
+
+    private TypedQuery<GitHubRepository> sortedQuery(Specification<GitHubRepository> spec, Sort sort) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<GitHubRepository> query = cb.createQuery(GitHubRepository.class);
+        Root<GitHubRepository> root = query.from(GitHubRepository.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(sort.stream().<Order>map(order -> toOrder(cb, root, order)).toList());
+        return entityManager.createQuery(query);
+    }
+
+    private static JpaOrder toOrder(HibernateCriteriaBuilder cb, Root<GitHubRepository> root, Sort.Order order) {
+        JpaOrder jpaOrder = order.isAscending() ? cb.asc(root.get(order.getProperty())) : cb.desc(root.get(order.getProperty()));
+        return switch (order.getNullHandling()) {
+            case NULLS_FIRST -> jpaOrder.nullPrecedence(NullPrecedence.FIRST);
+            case NULLS_LAST -> jpaOrder.nullPrecedence(NullPrecedence.LAST);
+            case NATIVE -> jpaOrder;
+        };
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RepositoryChange> findChangesAfter(long since, int limit) {
+        return findChangesAfter(since, null, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RepositoryChange> findChangesAfter(long since, OffsetDateTime changedSince, int limit) {
+        long before = committedBefore();
+        TypedQuery<RepositoryChange> query = entityManager
+                .createQuery("SELECT c FROM RepositoryChange c JOIN FETCH c.repository "
+                        + "WHERE c.version > :since AND c.version < :before "
+                        + (changedSince != null ? "AND c.changedAt >= :changedSince " : "")
+                        + "ORDER BY c.version", RepositoryChange.class)
+                .setParameter("since", since)
+                .setParameter("before", before);
+        if (changedSince != null) {
+            query.setParameter("changedSince", changedSince);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int rollUpDailyStats(int limit) {
+        long before = committedBefore();
+        Long watermark = entityManager
+                .createQuery("SELECT MAX(s.lastVersion) FROM RepositoryDailyStats s", Long.class)
+                .getSingleResult();
+        List<RepositoryChange> changes = entityManager
+                .createQuery("SELECT c FROM RepositoryChange c WHERE c.version > :after AND c.version < :before "
+                        + "AND c.starsCount IS NOT NULL ORDER BY c.version", RepositoryChange.class)
+                .setParameter("after", watermark == null ? 0L : watermark)
+                .setParameter("before", before)
+                .setMaxResults(limit)
+                .getResultList();
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        // Changes are in version order, so the last one seen per day holds that day's closing counts.
+        Map<RepositoryDailyStats.Key, RepositoryChange> lastByDay = new LinkedHashMap<>();
+        for (RepositoryChange change : changes) {
+            lastByDay.put(new RepositoryDailyStats.Key(change.getRepositoryId(), dayOf(change)), change);
+        }
+        // Versions are allocated after the change time is taken, so around midnight a lower version can
+        // fall on a later day: bound the lookup by the days themselves, not by the first and last change.
+        Map<RepositoryDailyStats.Key, RepositoryDailyStats> existing = entityManager
+                .createQuery("SELECT s FROM RepositoryDailyStats s WHERE s.repositoryId IN :ids "
+                        + "AND s.day BETWEEN :first AND :last", RepositoryDailyStats.class)
+                .setParameter("ids", lastByDay.keySet().stream().map(RepositoryDailyStats.Key::getRepositoryId).collect(Collectors.toSet()))
+                .setParameter("first", lastByDay.keySet().stream().map(RepositoryDailyStats.Key::getDay).min(LocalDate::compareTo).orElseThrow())
+                .setParameter("last", lastByDay.keySet().stream().map(RepositoryDailyStats.Key::getDay).max(LocalDate::compareTo).orElseThrow())
+                .getResultStream()
+                .collect(Collectors.toMap(stats -> new RepositoryDailyStats.Key(stats.getRepositoryId(), stats.getDay()), Function.identity()));
+
+        lastByDay.forEach((key, change) -> {
+            RepositoryDailyStats stats = existing.get(key);
+            if (stats == null) {
+                entityManager.persist(new RepositoryDailyStats(key.getRepositoryId(), key.getDay(),
+                        change.getStarsCount(), change.getForksCount(), change.getVersion()));
+            } else {
+                stats.setStarsCount(change.getStarsCount());
+                stats.setForksCount(change.getForksCount());
+                stats.setLastVersion(change.getVersion());
+            }
+        });
+        log.debug("Rolled {} changes up into {} daily stats rows.", changes.size(), lastByDay.size());
+        return changes.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RepositoryGrowth> findGrowth(String language, LocalDate start, int limit) {
+        boolean byLanguage = language != null && !language.isBlank();
+        Query query = entityManager.createNativeQuery("SELECT r.id, COALESCE(r.stars_count, 0) - b.stars_count AS stars_growth, "
+                + "COALESCE(r.forks_count, 0) - COALESCE(b.forks_count, 0) AS forks_growth, b.stats_day "
+                + "FROM github_repositories r JOIN repository_daily_stats b ON b.repository_id = r.id AND b.stats_day = COALESCE("
+                + "(SELECT MAX(s.stats_day) FROM repository_daily_stats s WHERE s.repository_id = r.id AND s.stats_day <= :start), "
+                + "(SELECT MIN(s.stats_day) FROM repository_daily_stats s WHERE s.repository_id = r.id)) "
+                + (byLanguage ? "WHERE r.language_lower = :language " : "")
+                + "ORDER BY stars_growth DESC, r.id")
+                .setParameter("start", start)
+                .setMaxResults(limit);
+        if (byLanguage) {
+            query.setParameter("language", language.toLowerCase(Locale.ROOT));
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, GitHubRepository> repositories = findAllById(rows.stream().map(row -> ((Number) row[0]).longValue()).toList());
+        List<RepositoryGrowth> growth = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            GitHubRepository repository = repositories.get(((Number) row[0]).longValue());
+            if (repository != null) {
+                growth.add(new RepositoryGrowth(repository, intValue(row[1]), intValue(row[2]), toLocalDate(row[3])));
+            }
+        }
+        return growth;
+    }
+
+    /** Versions below this are committed, or belong to another process; see {@link #recordChanges}. */
+    private long committedBefore() {
+        versionsLock.lock();
+        try {
+            return inFlightVersions.isEmpty() ? Long.MAX_VALUE : inFlightVersions.firstKey();
+        } finally {
+            versionsLock.unlock();
+        }
+    }
+
+    private static LocalDate dayOf(RepositoryChange change) {
+        return change.getChangedAt().withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+    }
+
+    private static int intValue(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    /**
+     * Appends the changes to the log. Before versions are allocated, the transaction holds the
+     * version after the highest one handed out so far, which is at or below anything the sequence
+     * can still return; once its versions are known, it holds its lowest one instead. So any version
+     * a reader can see is below every version still to be committed, and the lock is only held for
+     * that bookkeeping, never across the sequence call.
+     */
+    private void recordChanges(List<GitHubRepository> inserted, List<GitHubRepository> updated, OffsetDateTime changedAt) {
+        if (inserted.isEmpty() && updated.isEmpty()) {
+            return;
+        }
+        List<RepositoryChange> changes = new ArrayList<>(inserted.size() + updated.size());
+        inserted.forEach(repository -> changes.add(new RepositoryChange(repository, RepositoryChange.Type.INSERT, changedAt)));
+        updated.forEach(repository -> changes.add(new RepositoryChange(repository, RepositoryChange.Type.UPDATE, changedAt)));
+
+        long floor = holdNextVersion();
+        try {
+            changes.forEach(entityManager::persist);
+        } catch (RuntimeException e) {
+            release(floor);
+            throw e;
+        }
+        long lowest = changes.get(0).getVersion();
+        long highest = changes.get(changes.size() - 1).getVersion();
+        versionsLock.lock();
+        try {
+            inFlightVersions.merge(lowest, 1, Integer::sum);
+            highestVersion = Math.max(highestVersion, highest);
+            release(floor);
+        } finally {
+            versionsLock.unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(lowest);
+            }
+        });
+    }
+
+    private long holdNextVersion() {
+        versionsLock.lock();
+        try {
+            long next = highestVersion + 1;
+            inFlightVersions.merge(next, 1, Integer::sum);
+            return next;
+        } finally {
+            versionsLock.unlock();
+        }
+    }
+
+    private void release(long version) {
+        versionsLock.lock();
+        try {
+            inFlightVersions.computeIfPresent(version, (key, holders) -> holders == 1 ? null : holders - 1);
+        } finally {
+            versionsLock.unlock();
+        }
+    }
+
+    private Map<Long, GitHubRepository> findAllById(Collection<Long> ids) {
+        return entityManager
+                .createQuery("SELECT r FROM GitHubRepository r WHERE r.id IN :ids", GitHubRepository.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(GitHubRepository::getId, Function.identity()));
+    }
+}
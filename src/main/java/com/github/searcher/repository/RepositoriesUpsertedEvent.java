@@ -0,0 +1,29 @@
+package com.github.searcher.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.searcher.model.GitHubRepository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published after an upsert has been committed, so in-memory views can apply the same change.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RepositoriesUpsertedEvent {
+
+    private final UpsertResult result;
+
+    /**
+     * Rows that were inserted or updated, i.e. everything a derived view has to refresh.
+     */
+    public List<GitHubRepository> getChanged() {
+        List<GitHubRepository> changed = new ArrayList<>(result.getInserted().size() + result.getUpdated().size());
+        changed.addAll(result.getInserted());
+        changed.addAll(result.getUpdated());
+        return changed;
+    }
+}
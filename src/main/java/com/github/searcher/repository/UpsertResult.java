@@ -0,0 +1,27 @@
+package com.github.searcher.repository;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.github.searcher.model.GitHubRepository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a bulk upsert. {@code repositories} keeps the order of the input,
+ * the other lists split it by what happened to each row.
+ */
+@Getter
+@AllArgsConstructor
+public class UpsertResult {
+
+    private final List<GitHubRepository> repositories;
+    private final List<GitHubRepository> inserted;
+    private final List<GitHubRepository> updated;
+    private final List<GitHubRepository> unchanged;
+
+    public static UpsertResult empty() {
+        return new UpsertResult(Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    }
+}
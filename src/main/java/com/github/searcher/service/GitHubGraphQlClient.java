@@ -0,0 +1,137 @@
+package com.github.searcher.service;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.searcher.handler.GitHubApiException;
+import com.github.searcher.model.GitHubRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Fetches known repositories through GitHub's GraphQL API, up to {@code batch-size} (at most 100)
+ * per request instead of one REST call each.
+ * <p>
+ * Each batch is a single query with one aliased {@code repository(owner, name)} field per row,
+ * selecting only the fields the entity stores; owners and names are passed as variables, never
+ * spliced into the query text. Rows GitHub no longer resolves, or that now resolve to a different
+ * repository id, are left out of the result. GraphQL requires authentication: set
+ * {@code github.api.token}.
+ */
+@Component
+@Slf4j
+public class GitHubGraphQlClient {
+
+    static final int MAX_BATCH_SIZE = 100;
+
+    private static final String REPOSITORY_FRAGMENT = "fragment stored on Repository { databaseId name description "
+            + "owner { login } primaryLanguage { name } stargazerCount forkCount updatedAt }";
+
+    private final WebClient webClient;
+    private final String path;
+    private final String token;
+    private final int batchSize;
+    private final int concurrency;
+
+    public GitHubGraphQlClient(WebClient webClient,
+                               @Value("${github.api.graphql.path:/graphql}") String path,
+                               @Value("${github.api.token:}") String token,
+                               @Value("${github.api.graphql.batch-size:100}") int batchSize,
+                               @Value("${github.api.graphql.concurrency:2}") int concurrency) {
+        this.webClient = webClient;
+        this.path = path;
+        this.token = token;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Emits the current version of every repository in {@code known} that GitHub still serves under
+     * the stored owner and name. Fails if any batch fails.
+     */
+    public Flux<GitHubRepository> fetch(Collection<GitHubRepository> known) {
+        return Flux.fromIterable(known)
+                .buffer(batchSize)
+                .flatMap(this::fetchBatch, concurrency);
+    }
+
+    private Flux<GitHubRepository> fetchBatch(List<GitHubRepository> batch) {
+        StringBuilder declarations = new StringBuilder();
+        StringBuilder selections = new StringBuilder();
+        Map<String, Object> variables = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            declarations.append(i == 0 ? "" : ", ").append("$o").append(i).append(": String!, $n").append(i).append(": String!");
+            selections.append(" r").append(i).append(": repository(owner: $o").append(i).append(", name: $n").append(i).append(") { ...stored }");
+            variables.put("o" + i, batch.get(i).getOwnerName());
+            variables.put("n" + i, batch.get(i).getName());
+        }
+        String query = "query(" + declarations + ") {" + selections + " } " + REPOSITORY_FRAGMENT;
+
+        return webClient.post()
+                .uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (!token.isBlank()) {
+                        headers.setBearerAuth(token);
+                    }
+                })
+                .bodyValue(Map.of("query", query, "variables", variables))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, response -> response.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> new GitHubApiException("GitHub GraphQL error: " + body, response.statusCode())))
+                .bodyToMono(JsonNode.class)
+                .flatMapIterable(response -> toRepositories(batch, response));
+    }
+
+    private List<GitHubRepository> toRepositories(List<GitHubRepository> batch, JsonNode response) {
+        JsonNode data = response.path("data");
+        if (!data.isObject()) {
+            throw new GitHubApiException("GitHub GraphQL query failed: " + response.path("errors"), HttpStatus.BAD_GATEWAY);
+        }
+        List<GitHubRepository> repositories = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            JsonNode node = data.path("r" + i);
+            Long storedId = batch.get(i).getId();
+            if (!node.isObject()) {
+                // Partial result: GitHub reports the alias as NOT_FOUND in "errors" and returns the rest.
+                log.debug("GitHub GraphQL did not resolve repository {}.", storedId);
+                continue;
+            }
+            long id = node.path("databaseId").asLong();
+            if (id != storedId) {
+                log.debug("Repository {} now resolves to a different repository ({}); skipping.", storedId, id);
+                continue;
+            }
+            repositories.add(new GitHubRepository(id,
+                    node.path("name").asText(),
+                    textOrNull(node.path("description")),
+                    node.path("owner").path("login").asText(),
+                    textOrNull(node.path("primaryLanguage").path("name")),
+                    node.path("stargazerCount").asInt(),
+                    node.path("forkCount").asInt(),
+                    OffsetDateTime.parse(node.path("updatedAt").asText(), DateTimeFormatter.ISO_OFFSET_DATE_TIME)));
+        }
+        return repositories;
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node.isTextual() ? node.asText() : null;
+    }
+}
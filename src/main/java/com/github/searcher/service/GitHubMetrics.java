@@ -0,0 +1,134 @@
+package com.github.searcher.service;
+
+import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import com.github.searcher.repository.UpsertResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Meters for the search pipeline: upstream GitHub latency, what each upsert did with the
+ * fetched items, what the background refresh found, and database latency. Rate-limit gauges live in {@link GitHubRateLimitGovernor}.
+ */
+@Component
+public class GitHubMetrics {
+
+    static final String UPSTREAM_TIMER = "github.api.requests";
+    static final String ITEMS_COUNTER = "github.repositories.items";
+    static final String DB_TIMER = "github.repositories.db";
+    static final String PERSISTENCE_WAIT_TIMER = "github.persistence.wait";
+    static final String REFRESH_COUNTER = "github.repositories.refresh";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter fetchedCounter;
+    private final Counter insertedCounter;
+    private final Counter updatedCounter;
+    private final Counter unchangedCounter;
+    private final Timer persistenceWaitTimer;
+
+    public GitHubMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.fetchedCounter = itemsCounter("fetched");
+        this.insertedCounter = itemsCounter("inserted");
+        this.updatedCounter = itemsCounter("updated");
+        this.unchangedCounter = itemsCounter("unchanged");
+        this.persistenceWaitTimer = Timer.builder(PERSISTENCE_WAIT_TIMER)
+                .description("Time repository calls waited for a persistence scheduler thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * WebClient filter timing each GitHub call by resource and response status. Register it after
+     * the rate-limit governor so time spent queued for a token is not counted as upstream latency.
+     */
+    public ExchangeFilterFunction upstreamFilter() {
+        return (request, next) -> Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String resource = resourceOf(request.url());
+            return next.exchange(request)
+                    .doOnNext(response -> sample.stop(upstreamTimer(resource, String.valueOf(response.statusCode().value()))))
+                    .doOnError(error -> sample.stop(upstreamTimer(resource, "IO_ERROR")));
+        });
+    }
+
+    public void recordUpsert(int fetched, UpsertResult result) {
+        fetchedCounter.increment(fetched);
+        insertedCounter.increment(result.getInserted().size());
+        updatedCounter.increment(result.getUpdated().size());
+        unchangedCounter.increment(result.getUnchanged().size());
+    }
+
+    /**
+     * Records one refresh batch: rows answered with 304, rows GitHub no longer serves, calls that
+     * failed, and what the diff did with the re-fetched rows.
+     */
+    public void recordRefresh(int notModified, int missing, int failed, UpsertResult result) {
+        refreshCounter("not_modified").increment(notModified);
+        refreshCounter("missing").increment(missing);
+        refreshCounter("failed").increment(failed);
+        refreshCounter("updated").increment(result.getUpdated().size());
+        refreshCounter("unchanged").increment(result.getUnchanged().size());
+    }
+
+    /**
+     * Runs a blocking repository call and records its latency under {@code operation}.
+     */
+    public <T> T timeDb(String operation, Callable<T> call) throws Exception {
+        return Timer.builder(DB_TIMER)
+                .description("Latency of repository database calls")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .recordCallable(call);
+    }
+
+    public void recordPersistenceWait(long nanos) {
+        persistenceWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer upstreamTimer(String resource, String status) {
+        return Timer.builder(UPSTREAM_TIMER)
+                .description("Latency of GitHub API calls, excluding rate-limit queueing")
+                .tag("resource", resource)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter itemsCounter(String outcome) {
+        return Counter.builder(ITEMS_COUNTER)
+                .description("Repositories fetched from GitHub and what the upsert did with them")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter refreshCounter(String outcome) {
+        return Counter.builder(REFRESH_COUNTER)
+                .description("Stored repositories re-checked by the background refresh, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String resourceOf(URI url) {
+        String path = url.getPath();
+        if (path == null) {
+            return "other";
+        }
+        if (path.contains("/search/")) {
+            return "search";
+        }
+        if (path.startsWith("/graphql")) {
+            return "graphql";
+        }
+        return path.startsWith("/repositories/") || path.startsWith("/repos/") ? "repository" : "other";
+    }
+}
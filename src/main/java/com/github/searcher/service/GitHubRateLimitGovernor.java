@@ -0,0 +1,209 @@
+package com.github.searcher.service;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import com.github.searcher.handler.GitHubRateLimitExceededException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client-side governor for GitHub's rate limits.
+ * <p>
+ * Search calls draw from a token bucket sized to the search API budget (30 requests per
+ * minute by default). When the bucket is empty a call is delayed until a token is due
+ * instead of being sent and rejected. Every response's X-RateLimit-Remaining/Reset headers
+ * are fed back in, so the bucket never runs ahead of what GitHub reports. Calls that would
+ * have to wait longer than {@code max-wait} fail fast with {@link GitHubRateLimitExceededException}.
+ */
+@Component
+@Slf4j
+public class GitHubRateLimitGovernor {
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    static final String RESET_HEADER = "X-RateLimit-Reset";
+    static final String RESOURCE_HEADER = "X-RateLimit-Resource";
+
+    private final int capacity;
+    private final double millisPerToken;
+    private final long maxWaitMillis;
+    private final Clock clock;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    private double tokens;
+    private long lastRefillMillis;
+    private volatile long searchRemaining = -1;
+    private volatile long coreRemaining = -1;
+    private volatile long coreResetEpochSeconds;
+
+    @Autowired
+    public GitHubRateLimitGovernor(@Value("${github.api.rate-limit.search.requests:30}") int capacity,
+                                   @Value("${github.api.rate-limit.search.period:60s}") Duration period,
+                                   @Value("${github.api.rate-limit.max-wait:2m}") Duration maxWait,
+                                   MeterRegistry meterRegistry) {
+        this(capacity, period, maxWait, meterRegistry, Clock.systemUTC());
+    }
+
+    GitHubRateLimitGovernor(int capacity, Duration period, Duration maxWait, MeterRegistry meterRegistry, Clock clock) {
+        this.capacity = capacity;
+        this.millisPerToken = (double) period.toMillis() / capacity;
+        this.maxWaitMillis = maxWait.toMillis();
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefillMillis = clock.millis();
+
+        Gauge.builder("github.ratelimit.search.tokens", this, GitHubRateLimitGovernor::availableTokens)
+                .description("Search requests the governor would let through right now")
+                .register(meterRegistry);
+        Gauge.builder("github.ratelimit.remaining", this, governor -> governor.searchRemaining)
+                .description("Last X-RateLimit-Remaining reported by GitHub")
+                .tag("resource", "search")
+                .register(meterRegistry);
+        Gauge.builder("github.ratelimit.remaining", this, governor -> governor.coreRemaining)
+                .description("Last X-RateLimit-Remaining reported by GitHub")
+                .tag("resource", "core")
+                .register(meterRegistry);
+        Gauge.builder("github.ratelimit.waiting", waiting, AtomicInteger::get)
+                .description("Search requests currently queued by the governor")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("github.ratelimit.wait")
+                .description("Time search requests spent queued by the governor")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("github.ratelimit.rejected")
+                .description("Search requests failed because the queueing delay exceeded max-wait")
+                .register(meterRegistry);
+    }
+
+    /**
+     * WebClient filter that paces search requests and records the rate-limit headers of every response.
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            boolean search = isSearchRequest(request.url());
+            Mono<Void> permit = search ? acquire() : Mono.empty();
+            return permit.then(Mono.defer(() -> next.exchange(request)))
+                    .doOnNext(response -> recordResponse(search, response.headers().asHttpHeaders()));
+        };
+    }
+
+    /**
+     * Completes once a search request may be sent, delaying if the bucket is empty.
+     */
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            long waitMillis = reserve();
+            if (waitMillis < 0) {
+                rejectedCounter.increment();
+                long retryAfterSeconds = Math.max(1, maxWaitMillis / 1000);
+                log.warn("GitHub search budget exhausted; rejecting request instead of queueing it for more than {} ms.", maxWaitMillis);
+                return Mono.error(new GitHubRateLimitExceededException("GitHub API rate limit exceeded. Please try again later.", retryAfterSeconds));
+            }
+            waitTimer.record(Duration.ofMillis(waitMillis));
+            if (waitMillis == 0) {
+                return Mono.empty();
+            }
+            log.info("Delaying GitHub search request by {} ms to stay within the rate limit.", waitMillis);
+            waiting.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(waitMillis))
+                    .doFinally(signal -> waiting.decrementAndGet())
+                    .then();
+        });
+    }
+
+    /**
+     * Takes a token and returns how long the caller must wait before using it, or -1 if that exceeds max-wait.
+     */
+    synchronized long reserve() {
+        long now = clock.millis();
+        refill(now);
+        tokens -= 1;
+        long availableAt = lastRefillMillis + (tokens < 0 ? (long) Math.ceil(-tokens * millisPerToken) : 0);
+        long waitMillis = Math.max(0, availableAt - now);
+        if (waitMillis > maxWaitMillis) {
+            tokens += 1;
+            return -1;
+        }
+        return waitMillis;
+    }
+
+    void recordResponse(boolean search, HttpHeaders headers) {
+        String remainingHeader = headers.getFirst(REMAINING_HEADER);
+        if (remainingHeader == null) {
+            return;
+        }
+        String resource = headers.getFirst(RESOURCE_HEADER);
+        long remaining = Long.parseLong(remainingHeader);
+        long resetEpochSeconds = headers.containsKey(RESET_HEADER) ? Long.parseLong(headers.getFirst(RESET_HEADER)) : 0;
+
+        if ("search".equals(resource) || (resource == null && search)) {
+            searchRemaining = remaining;
+            synchronized (this) {
+                refill(clock.millis());
+                if (tokens > remaining) {
+                    tokens = remaining;
+                }
+                long resetMillis = resetEpochSeconds * 1000;
+                if (remaining == 0 && resetMillis > lastRefillMillis) {
+                    // Nothing refills before GitHub resets the window.
+                    lastRefillMillis = resetMillis;
+                    log.warn("GitHub search budget exhausted until {}; queueing further searches.", resetEpochSeconds);
+                }
+            }
+        } else if (resource == null || "core".equals(resource)) {
+            // Other resources (graphql, ...) have budgets of their own and must not overwrite core's.
+            coreRemaining = remaining;
+            coreResetEpochSeconds = resetEpochSeconds;
+        }
+    }
+
+    /**
+     * Search requests currently delayed by the governor; non-zero means foreground searches are short of budget.
+     */
+    public int getQueuedSearches() {
+        return waiting.get();
+    }
+
+    /**
+     * Last reported remaining budget of the core (non-search) API, or -1 if no response has been seen yet.
+     */
+    public long getCoreRemaining() {
+        return coreRemaining;
+    }
+
+    public long getCoreResetEpochSeconds() {
+        return coreResetEpochSeconds;
+    }
+
+    synchronized double availableTokens() {
+        refill(clock.millis());
+        return Math.max(0, tokens);
+    }
+
+    private void refill(long now) {
+        if (now <= lastRefillMillis) {
+            return;
+        }
+        tokens = Math.min(capacity, tokens + (now - lastRefillMillis) / millisPerToken);
+        lastRefillMillis = now;
+    }
+
+    private static boolean isSearchRequest(URI url) {
+        return url.getPath() != null && url.getPath().contains("/search/");
+    }
+}
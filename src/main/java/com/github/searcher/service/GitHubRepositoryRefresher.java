@@ -0,0 +1,322 @@
+package com.github.searcher.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositorySort;
+import com.github.searcher.repository.UpsertResult;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Background refresh of stored repositories, so stars, forks and last-updated do not go stale
+ * until someone repeats the same search.
+ * <p>
+ * Every {@code interval} up to {@code batch-size} stale rows are re-read, most starred first.
+ * Staleness is tiered by popularity: {@code tiers} maps a minimum star count to the maximum age
+ * of a row in that tier (by default hourly from 10k stars, six-hourly from 1k, daily below).
+ * Each row is fetched with a conditional {@code GET /repositories/{id}} carrying its stored ETag,
+ * so an unchanged repository costs a 304 that GitHub does not charge against the rate limit.
+ * 304s only bump {@code last_checked}; re-fetched rows go through the same diff as search
+ * results, so only real changes are written and published. A row whose check fails (an error
+ * status other than 404/410, a transport or decoding error) is not selected again for
+ * {@code failure-backoff}, so rows that keep failing cannot crowd the rest out of the batch.
+ * <p>
+ * With {@code mode=graphql} the batch is instead fetched through {@link GitHubGraphQlClient}, up
+ * to 100 rows per request. GraphQL has no conditional requests, so every row goes through the
+ * diff, but a batch of 100 costs one request instead of 100.
+ * <p>
+ * Refreshing yields to foreground searches: a cycle is skipped while the rate-limit governor is
+ * queueing searches, a REST batch never spends the last {@code core-reserve} core API requests,
+ * and at most {@code concurrency} refresh calls are in flight. Disabled by default.
+ */
+@Component
+@Slf4j
+public class GitHubRepositoryRefresher {
+
+    public enum RefreshMode {
+        REST,
+        GRAPHQL
+    }
+
+    private final WebClient webClient;
+    private final GitHubGraphQlClient graphQlClient;
+    private final GitHubRepositoryStore repositoryStore;
+    private final GitHubRateLimitGovernor rateLimitGovernor;
+    private final GitHubMetrics metrics;
+    private final boolean enabled;
+    private final RefreshMode mode;
+    private final Duration interval;
+    private final int batchSize;
+    private final int concurrency;
+    private final long coreReserve;
+    private final String repositoryPath;
+    private final List<Tier> tiers;
+    private final Duration failureBackoff;
+    private final Clock clock;
+
+    private Disposable schedule;
+
+    @Autowired
+    public GitHubRepositoryRefresher(WebClient webClient, GitHubGraphQlClient graphQlClient, GitHubRepositoryStore repositoryStore,
+                                     GitHubRateLimitGovernor rateLimitGovernor, GitHubMetrics metrics,
+                                     @Value("${github.refresh.enabled:false}") boolean enabled,
+                                     @Value("${github.refresh.mode:rest}") RefreshMode mode,
+                                     @Value("${github.refresh.interval:5m}") Duration interval,
+                                     @Value("${github.refresh.batch-size:50}") int batchSize,
+                                     @Value("${github.refresh.concurrency:4}") int concurrency,
+                                     @Value("${github.refresh.core-reserve:1000}") long coreReserve,
+                                     @Value("${github.refresh.tiers:10000=1h,1000=6h,0=1d}") String tiers,
+                                     @Value("${github.refresh.failure-backoff:1h}") Duration failureBackoff,
+                                     @Value("${github.api.repository.path:/repositories/{id}}") String repositoryPath) {
+        this(webClient, graphQlClient, repositoryStore, rateLimitGovernor, metrics, enabled, mode, interval, batchSize, concurrency,
+                coreReserve, parseTiers(tiers), failureBackoff, repositoryPath, Clock.systemUTC());
+    }
+
+    GitHubRepositoryRefresher(WebClient webClient, GitHubGraphQlClient graphQlClient, GitHubRepositoryStore repositoryStore,
+                              GitHubRateLimitGovernor rateLimitGovernor, GitHubMetrics metrics, boolean enabled,
+                              RefreshMode mode, Duration interval, int batchSize, int concurrency, long coreReserve,
+                              List<Tier> tiers, Duration failureBackoff, String repositoryPath, Clock clock) {
+        this.webClient = webClient;
+        this.graphQlClient = graphQlClient;
+        this.repositoryStore = repositoryStore;
+        this.rateLimitGovernor = rateLimitGovernor;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.mode = mode;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.coreReserve = coreReserve;
+        this.tiers = tiers;
+        this.failureBackoff = failureBackoff;
+        this.repositoryPath = repositoryPath;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Refreshing up to {} stale repositories every {} over {} with tiers {}.", batchSize, interval, mode, tiers);
+        // Ticks that arrive while a cycle is still running are dropped rather than queued.
+        schedule = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refreshStale()
+                        .onErrorResume(error -> {
+                            log.error("Repository refresh cycle failed.", error);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    /**
+     * Runs one refresh cycle and returns what the diff did with the re-fetched rows.
+     */
+    public Mono<UpsertResult> refreshStale() {
+        return Mono.defer(() -> {
+            if (rateLimitGovernor.getQueuedSearches() > 0) {
+                log.debug("Skipping repository refresh while {} searches are queued for rate-limit budget.", rateLimitGovernor.getQueuedSearches());
+                return Mono.just(UpsertResult.empty());
+            }
+            int budget = mode == RefreshMode.GRAPHQL ? batchSize : batchBudget();
+            if (budget <= 0) {
+                log.info("Skipping repository refresh: {} core API requests left, {} reserved for searches.",
+                        rateLimitGovernor.getCoreRemaining(), coreReserve);
+                return Mono.just(UpsertResult.empty());
+            }
+            return repositoryStore.findFirst(staleSpec(OffsetDateTime.now(clock)), RepositorySort.STARS.toKeysetSort(), budget)
+                    .flatMap(stale -> mode == RefreshMode.GRAPHQL
+                            ? checkInBatches(stale)
+                            : Flux.fromIterable(stale).flatMap(this::check, concurrency).collectList())
+                    .flatMap(this::apply);
+        });
+    }
+
+    /**
+     * How many rows this cycle may check without eating into the reserved core budget.
+     */
+    private int batchBudget() {
+        long remaining = rateLimitGovernor.getCoreRemaining();
+        if (remaining < 0 || clock.instant().getEpochSecond() >= rateLimitGovernor.getCoreResetEpochSeconds()) {
+            // Nothing reported yet, or the window has reset since.
+            return batchSize;
+        }
+        return (int) Math.max(0, Math.min(batchSize, remaining - coreReserve));
+    }
+
+    private Specification<GitHubRepository> staleSpec(OffsetDateTime now) {
+        return (root, query, cb) -> {
+            Path<Integer> stars = root.get("starsCount");
+            Path<OffsetDateTime> lastChecked = root.get("lastChecked");
+            Path<OffsetDateTime> retryAfter = root.get("retryAfter");
+            List<Predicate> stale = new ArrayList<>();
+            Integer upperBound = null;
+            for (Tier tier : tiers) {
+                Predicate inTier = cb.greaterThanOrEqualTo(stars, tier.minStars());
+                if (upperBound != null) {
+                    inTier = cb.and(inTier, cb.lessThan(stars, upperBound));
+                }
+                stale.add(cb.and(inTier, cb.or(cb.isNull(lastChecked), cb.lessThan(lastChecked, now.minus(tier.maxAge())))));
+                upperBound = tier.minStars();
+            }
+            return cb.and(cb.or(stale.toArray(Predicate[]::new)),
+                    cb.or(cb.isNull(retryAfter), cb.lessThanOrEqualTo(retryAfter, now)));
+        };
+    }
+
+    private Mono<Check> check(GitHubRepository stored) {
+        WebClient.RequestHeadersSpec<?> request = webClient.get()
+                .uri(repositoryPath, stored.getId())
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (stored.getEtag() != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, stored.getEtag());
+        }
+        return request.exchangeToMono(response -> toCheck(stored, response))
+                .onErrorResume(error -> {
+                    log.warn("Failed to refresh repository {}: {}", stored.getId(), error.getMessage());
+                    return Mono.just(new Check(Outcome.FAILED, stored.getId(), null));
+                });
+    }
+
+    private Mono<List<Check>> checkInBatches(List<GitHubRepository> stale) {
+        return graphQlClient.fetch(stale)
+                .collectMap(GitHubRepository::getId)
+                .map(fetched -> stale.stream()
+                        .map(row -> fetched.containsKey(row.getId())
+                                ? new Check(Outcome.FETCHED, row.getId(), fetched.get(row.getId()))
+                                : new Check(Outcome.MISSING, row.getId(), null))
+                        .toList())
+                .onErrorResume(error -> {
+                    log.warn("Failed to refresh {} repositories over GraphQL: {}", stale.size(), error.getMessage());
+                    return Mono.just(stale.stream().map(row -> new Check(Outcome.FAILED, row.getId(), null)).toList());
+                });
+    }
+
+    private Mono<Check> toCheck(GitHubRepository stored, ClientResponse response) {
+        if (response.statusCode() == HttpStatus.NOT_MODIFIED) {
+            return response.releaseBody().thenReturn(new Check(Outcome.NOT_MODIFIED, stored.getId(), null));
+        }
+        if (response.statusCode().is2xxSuccessful()) {
+            String etag = response.headers().asHttpHeaders().getETag();
+            return GitHubSearchResponseDecoder.forRepository().decode(response.bodyToFlux(DataBuffer.class))
+                    .next()
+                    .map(fetched -> {
+                        fetched.setEtag(etag);
+                        return new Check(Outcome.FETCHED, stored.getId(), fetched);
+                    })
+                    .defaultIfEmpty(new Check(Outcome.FAILED, stored.getId(), null));
+        }
+        if (response.statusCode() == HttpStatus.NOT_FOUND || response.statusCode() == HttpStatus.GONE) {
+            // Deleted or made private: keep the last known data, but stop re-polling it every cycle.
+            log.debug("Repository {} is no longer served by GitHub ({}).", stored.getId(), response.statusCode());
+            return response.releaseBody().thenReturn(new Check(Outcome.MISSING, stored.getId(), null));
+        }
+        log.warn("Refreshing repository {} returned {}; retrying in a later cycle.", stored.getId(), response.statusCode());
+        return response.releaseBody().thenReturn(new Check(Outcome.FAILED, stored.getId(), null));
+    }
+
+    private Mono<UpsertResult> apply(List<Check> checks) {
+        List<GitHubRepository> fetched = new ArrayList<>();
+        List<Long> confirmed = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        int notModified = 0;
+        int missing = 0;
+        int failed = 0;
+        for (Check check : checks) {
+            switch (check.outcome()) {
+                case FETCHED -> fetched.add(check.fetched());
+                case NOT_MODIFIED -> {
+                    confirmed.add(check.id());
+                    notModified++;
+                }
+                case MISSING -> {
+                    confirmed.add(check.id());
+                    missing++;
+                }
+                case FAILED -> {
+                    failedIds.add(check.id());
+                    failed++;
+                }
+            }
+        }
+        int notModifiedCount = notModified;
+        int missingCount = missing;
+        int failedCount = failed;
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        Mono<Integer> postponed = failedIds.isEmpty() ? Mono.empty() : repositoryStore.postponeRefresh(failedIds, now.plus(failureBackoff));
+        if (fetched.isEmpty() && confirmed.isEmpty()) {
+            return postponed.then(Mono.fromSupplier(() -> {
+                metrics.recordRefresh(0, 0, failedCount, UpsertResult.empty());
+                return UpsertResult.empty();
+            }));
+        }
+        return postponed.then(repositoryStore.applyRefresh(fetched, confirmed, now))
+                .doOnNext(result -> {
+                    metrics.recordRefresh(notModifiedCount, missingCount, failedCount, result);
+                    log.info("Refreshed {} repositories: {} not modified, {} updated, {} unchanged, {} missing, {} failed.",
+                            checks.size(), notModifiedCount, result.getUpdated().size(), result.getUnchanged().size(),
+                            missingCount, failedCount);
+                });
+    }
+
+    /**
+     * Parses {@code <minStars>=<maxAge>} pairs, e.g. {@code 10000=1h,1000=6h,0=1d}, most popular tier first.
+     */
+    static List<Tier> parseTiers(String spec) {
+        List<Tier> tiers = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid refresh tier '" + entry.trim() + "'; expected <minStars>=<maxAge>, e.g. 1000=6h");
+            }
+            tiers.add(new Tier(Integer.parseInt(parts[0].trim()), DurationStyle.detectAndParse(parts[1].trim())));
+        }
+        tiers.sort(Comparator.comparingInt(Tier::minStars).reversed());
+        return tiers;
+    }
+
+    /**
+     * Rows with at least {@code minStars} (and fewer than the next tier up) are stale after {@code maxAge}.
+     */
+    record Tier(int minStars, Duration maxAge) {
+    }
+
+    private enum Outcome { FETCHED, NOT_MODIFIED, MISSING, FAILED }
+
+    private record Check(Outcome outcome, long id, GitHubRepository fetched) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.searcher.service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import com.github.searcher.dto.RepositoryGrowth;
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositoryChange;
+import com.github.searcher.repository.GitHubRepositoryRepository;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+import com.github.searcher.repository.UpsertResult;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.retry.Retry;
+
+/**
+ * {@link Mono} facade over the blocking JPA repository, {@link GitHubRepositoryRepository}.
+ * <p>
+ * This is the only place that touches the repository. Each call is deferred until subscription,
+ * runs on the persistence scheduler and is timed, together with how long it waited for a scheduler
+ * thread. Event-loop threads are never blocked, but every call still holds a scheduler thread and
+ * a JDBC connection while it runs: persistence is not non-blocking end to end.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GitHubRepositoryStore {
+
+    /** Reruns of an upsert that lost an insert to a concurrent upsert of the same new rows. */
+    private static final int INSERT_CONFLICT_RETRIES = 2;
+
+    private final GitHubRepositoryRepository gitHubRepositoryRepository;
+    private final GitHubMetrics metrics;
+    private final Scheduler persistenceScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Upserts the rows and, once the transaction has committed, publishes a {@link RepositoriesUpsertedEvent}.
+     * <p>
+     * New rows are inserted after a lookup, so two upserts of the same new repository (concurrent
+     * searches, batches or write-behind flushes) can both try to insert it; the loser fails on the
+     * primary key and its transaction rolls back. It is then rerun in a new transaction, where the
+     * lookup finds the winner's row and the page is applied as updates.
+     */
+    public Mono<UpsertResult> upsertAll(Collection<GitHubRepository> repositories) {
+        return this.<UpsertResult>call("upsertAll", () -> gitHubRepositoryRepository.upsertAll(repositories))
+                .retryWhen(Retry.max(INSERT_CONFLICT_RETRIES)
+                        .filter(DataIntegrityViolationException.class::isInstance)
+                        .doBeforeRetry(signal -> log.info("Upsert of {} repositories collided with a concurrent insert; retrying as updates.",
+                                repositories.size()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnNext(result -> eventPublisher.publishEvent(new RepositoriesUpsertedEvent(result)));
+    }
+
+    /**
+     * Applies a refresh batch and, once committed, publishes the re-fetched rows as a {@link RepositoriesUpsertedEvent}.
+     */
+    public Mono<UpsertResult> applyRefresh(Collection<GitHubRepository> fetched, Collection<Long> notModifiedIds, OffsetDateTime checkedAt) {
+        return this.<UpsertResult>call("applyRefresh", () -> gitHubRepositoryRepository.applyRefresh(fetched, notModifiedIds, checkedAt))
+                .doOnNext(result -> eventPublisher.publishEvent(new RepositoriesUpsertedEvent(result)));
+    }
+
+    public Mono<Integer> postponeRefresh(Collection<Long> ids, OffsetDateTime retryAfter) {
+        return call("postponeRefresh", () -> gitHubRepositoryRepository.postponeRefresh(ids, retryAfter));
+    }
+
+    public Mono<List<GitHubRepository>> findAll(Specification<GitHubRepository> spec, Sort sort) {
+        return call("findAll", () -> gitHubRepositoryRepository.findAll(spec, sort));
+    }
+
+    /**
+     * Returns every row matching {@code spec} in {@code sort} order, nulls placed as the sort asks.
+     */
+    public Mono<List<GitHubRepository>> findSorted(Specification<GitHubRepository> spec, Sort sort) {
+        return call("findAll", () -> gitHubRepositoryRepository.findSorted(spec, sort));
+    }
+
+    /**
+     * Returns at most {@code limit} rows matching {@code spec} in {@code sort} order.
+     */
+    public Mono<List<GitHubRepository>> findFirst(Specification<GitHubRepository> spec, Sort sort, int limit) {
+        return call("findPage", () -> gitHubRepositoryRepository.findSorted(spec, sort, limit));
+    }
+
+    /**
+     * Returns at most {@code limit} change-log entries after {@code since}, in version order.
+     */
+    public Mono<List<RepositoryChange>> findChanges(long since, int limit) {
+        return call("findChanges", () -> gitHubRepositoryRepository.findChangesAfter(since, limit));
+    }
+
+    /**
+     * Returns at most {@code limit} change-log entries after {@code since} that were recorded at or
+     * after {@code changedSince}, in version order.
+     */
+    public Mono<List<RepositoryChange>> findChanges(long since, OffsetDateTime changedSince, int limit) {
+        return call("findChanges", () -> gitHubRepositoryRepository.findChangesAfter(since, changedSince, limit));
+    }
+
+    public Mono<Integer> rollUpDailyStats(int limit) {
+        return call("rollUpDailyStats", () -> gitHubRepositoryRepository.rollUpDailyStats(limit));
+    }
+
+    public Mono<List<RepositoryGrowth>> findGrowth(String language, LocalDate start, int limit) {
+        return call("findGrowth", () -> gitHubRepositoryRepository.findGrowth(language, start, limit));
+    }
+
+    private <T> Mono<T> call(String operation, Callable<T> call) {
+        return Mono.defer(() -> {
+            long submittedAt = System.nanoTime();
+            return Mono.fromCallable(() -> {
+                metrics.recordPersistenceWait(System.nanoTime() - submittedAt);
+                return metrics.timeDb(operation, call);
+            }).subscribeOn(persistenceScheduler);
+        });
+    }
+}
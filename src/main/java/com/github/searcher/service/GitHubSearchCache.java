@@ -0,0 +1,112 @@
+package com.github.searcher.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process cache of GitHub search pages keyed by the normalized request URL.
+ * <p>
+ * Entries are served directly while younger than the TTL. After that they are kept for
+ * the revalidation window and refreshed with a conditional request: a 304 answer
+ * (which GitHub does not count against the rate limit) just renews the entry.
+ * Concurrent misses for the same URL share a single upstream call.
+ */
+@Component
+@Slf4j
+public class GitHubSearchCache {
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Cache<String, CachedPage> entries;
+    private final ConcurrentMap<String, Mono<GitHubSearchPage>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GitHubSearchCache(@Value("${github.api.cache.enabled:true}") boolean enabled,
+                             @Value("${github.api.cache.ttl:60s}") Duration ttl,
+                             @Value("${github.api.cache.revalidation-window:10m}") Duration revalidationWindow,
+                             @Value("${github.api.cache.max-entries:1000}") long maxEntries) {
+        this(enabled, ttl, revalidationWindow, maxEntries, Clock.systemUTC());
+    }
+
+    GitHubSearchCache(boolean enabled, Duration ttl, Duration revalidationWindow, long maxEntries, Clock clock) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl.plus(revalidationWindow))
+                .build();
+    }
+
+    /**
+     * Returns the page for {@code url}, calling {@code loader} only on a miss or once the entry is stale.
+     * The loader receives the cached ETag (or null) and answers {@link GitHubSearchPage#notModified()} on a 304.
+     */
+    public Mono<GitHubSearchPage> get(String url, Function<String, Mono<GitHubSearchPage>> loader) {
+        if (!enabled) {
+            return loader.apply(null);
+        }
+        return Mono.defer(() -> {
+            CachedPage cached = entries.getIfPresent(url);
+            if (cached != null && cached.isFreshAt(clock.instant(), ttl)) {
+                log.debug("Search cache hit for {}", url);
+                return Mono.just(cached.page.copy());
+            }
+            return inFlight.computeIfAbsent(url, key -> load(key, cached, loader))
+                    .map(GitHubSearchPage::copy);
+        });
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private Mono<GitHubSearchPage> load(String url, CachedPage stale, Function<String, Mono<GitHubSearchPage>> loader) {
+        String etag = stale != null ? stale.page.getEtag() : null;
+        return loader.apply(etag)
+                .map(page -> {
+                    if (page.isNotModified()) {
+                        if (stale == null) {
+                            return GitHubSearchPage.empty();
+                        }
+                        log.debug("Search cache revalidated {} with ETag {}", url, etag);
+                        entries.put(url, new CachedPage(stale.page, clock.instant()));
+                        return stale.page;
+                    }
+                    entries.put(url, new CachedPage(page, clock.instant()));
+                    return page;
+                })
+                .doFinally(signal -> inFlight.remove(url))
+                .cache();
+    }
+
+    private static final class CachedPage {
+
+        private final GitHubSearchPage page;
+        private final Instant storedAt;
+
+        private CachedPage(GitHubSearchPage page, Instant storedAt) {
+            this.page = page;
+            this.storedAt = storedAt;
+        }
+
+        private boolean isFreshAt(Instant now, Duration ttl) {
+            return storedAt.plus(ttl).isAfter(now);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.searcher.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.github.searcher.model.GitHubRepository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of a GitHub search response, reduced to what we persist.
+ */
+@Getter
+@AllArgsConstructor
+public class GitHubSearchPage {
+
+    private final long totalCount;
+    private final List<GitHubRepository> items;
+    private final String etag;
+    private final boolean notModified;
+
+    public GitHubSearchPage(long totalCount, List<GitHubRepository> items) {
+        this(totalCount, items, null, false);
+    }
+
+    public static GitHubSearchPage empty() {
+        return new GitHubSearchPage(0, Collections.emptyList());
+    }
+
+    /**
+     * Marker for a 304 response: the cached page for the same ETag is still current.
+     */
+    public static GitHubSearchPage notModified() {
+        return new GitHubSearchPage(0, Collections.emptyList(), null, true);
+    }
+
+    /**
+     * Items are handed to JPA and become managed, so every consumer gets its own copies.
+     */
+    public GitHubSearchPage copy() {
+        return new GitHubSearchPage(totalCount, items.stream().map(GitHubRepository::copy).collect(Collectors.toList()), etag, notModified);
+    }
+}
@@ -0,0 +1,253 @@
+package com.github.searcher.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.github.searcher.model.GitHubRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Incremental decoder for a GitHub search response.
+ * <p>
+ * Feeds the response body chunk by chunk into Jackson's non-blocking parser and keeps only
+ * {@code total_count} and the eight item fields we persist. Everything else (owner objects,
+ * URLs, topics, license, ...) is skipped token by token without building a tree, and each
+ * repository is emitted as soon as its closing brace has been read.
+ * <p>
+ * {@link #forRepository()} decodes a single-repository response instead, whose root object
+ * is the one item.
+ * <p>
+ * Instances hold parser state and are meant for a single response.
+ */
+@Slf4j
+public class GitHubSearchResponseDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int SEARCH_ITEM_DEPTH = 3;
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final List<GitHubRepository> completed = new ArrayList<>();
+    private final boolean search;
+    private final int itemDepth;
+
+    private int depth;
+    private String fieldName;
+    private boolean inItems;
+    private boolean sawItems;
+    private boolean inOwner;
+    private ItemFields current;
+    private long totalCount;
+
+    public GitHubSearchResponseDecoder() {
+        this(true);
+    }
+
+    private GitHubSearchResponseDecoder(boolean search) {
+        this.search = search;
+        this.itemDepth = search ? SEARCH_ITEM_DEPTH : 1;
+        this.inItems = !search;
+        this.sawItems = !search;
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Decoder for a {@code /repositories/{id}} response, emitting at most one repository.
+     */
+    public static GitHubSearchResponseDecoder forRepository() {
+        return new GitHubSearchResponseDecoder(false);
+    }
+
+    /**
+     * Decodes a response body, releasing each buffer once its bytes have been consumed.
+     */
+    public Flux<GitHubRepository> decode(Flux<DataBuffer> body) {
+        return body.concatMapIterable(buffer -> {
+                    try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                        List<GitHubRepository> decoded = new ArrayList<>();
+                        while (iterator.hasNext()) {
+                            decoded.addAll(feed(iterator.next()));
+                        }
+                        return decoded;
+                    } catch (IOException e) {
+                        throw new DecodingException("Failed to decode GitHub search response", e);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .concatWith(Flux.defer(() -> {
+                    try {
+                        return Flux.fromIterable(endOfInput());
+                    } catch (IOException e) {
+                        return Flux.error(new DecodingException("Failed to decode GitHub search response", e));
+                    }
+                }));
+    }
+
+    /**
+     * Parses as much of {@code chunk} as possible and returns the repositories completed by it.
+     */
+    public List<GitHubRepository> feed(ByteBuffer chunk) throws IOException {
+        feeder.feedInput(chunk);
+        return drain();
+    }
+
+    public List<GitHubRepository> endOfInput() throws IOException {
+        feeder.endOfInput();
+        List<GitHubRepository> remaining = drain();
+        parser.close();
+        return remaining;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Whether the response contained an {@code items} array at all.
+     */
+    public boolean hasItems() {
+        return sawItems;
+    }
+
+    private List<GitHubRepository> drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            handle(token);
+        }
+        if (completed.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<GitHubRepository> drained = new ArrayList<>(completed);
+        completed.clear();
+        return drained;
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        switch (token) {
+            case FIELD_NAME:
+                fieldName = parser.currentName();
+                break;
+            case START_OBJECT:
+                depth++;
+                if (inItems && depth == itemDepth) {
+                    current = new ItemFields();
+                } else if (current != null && depth == itemDepth + 1 && "owner".equals(fieldName)) {
+                    inOwner = true;
+                }
+                break;
+            case START_ARRAY:
+                depth++;
+                if (search && depth == 2 && "items".equals(fieldName)) {
+                    inItems = true;
+                    sawItems = true;
+                }
+                break;
+            case END_OBJECT:
+                if (current != null && depth == itemDepth) {
+                    GitHubRepository repository = current.toRepository();
+                    if (repository != null) {
+                        completed.add(repository);
+                    }
+                    current = null;
+                } else if (inOwner && depth == itemDepth + 1) {
+                    inOwner = false;
+                }
+                depth--;
+                break;
+            case END_ARRAY:
+                if (search && inItems && depth == 2) {
+                    inItems = false;
+                }
+                depth--;
+                break;
+            default:
+                handleScalar(token);
+                break;
+        }
+    }
+
+    private void handleScalar(JsonToken token) throws IOException {
+        if (search && depth == 1 && "total_count".equals(fieldName) && token == JsonToken.VALUE_NUMBER_INT) {
+            totalCount = parser.getLongValue();
+        } else if (current != null && depth == itemDepth) {
+            current.set(fieldName, token, parser);
+        } else if (inOwner && depth == itemDepth + 1 && "login".equals(fieldName) && token != JsonToken.VALUE_NULL) {
+            current.owner = parser.getText();
+        }
+    }
+
+    private static final class ItemFields {
+
+        private Long id;
+        private String name;
+        private String description;
+        private String owner;
+        private String language;
+        private Integer stars;
+        private Integer forks;
+        private String updatedAt;
+
+        private void set(String field, JsonToken token, JsonParser parser) throws IOException {
+            if (token == JsonToken.VALUE_NULL) {
+                return;
+            }
+            switch (field) {
+                case "id":
+                    id = parser.getLongValue();
+                    break;
+                case "name":
+                    name = parser.getText();
+                    break;
+                case "description":
+                    description = parser.getText();
+                    break;
+                case "language":
+                    language = parser.getText();
+                    break;
+                case "stargazers_count":
+                    stars = parser.getIntValue();
+                    break;
+                case "forks_count":
+                    forks = parser.getIntValue();
+                    break;
+                case "updated_at":
+                    updatedAt = parser.getText();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private GitHubRepository toRepository() {
+            if (id == null || name == null || owner == null) {
+                log.warn("Skipping repository due to missing essential fields: id, name, or owner. id={}, name={}", id, name);
+                return null;
+            }
+            OffsetDateTime lastUpdated = updatedAt != null ? OffsetDateTime.parse(updatedAt, DateTimeFormatter.ISO_OFFSET_DATE_TIME) : null;
+            return new GitHubRepository(id, name, description, owner, language,
+                    stars != null ? stars : 0, forks != null ? forks : 0, lastUpdated);
+        }
+    }
+}
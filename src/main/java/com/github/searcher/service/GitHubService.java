@@ -1,35 +1,51 @@
 package com.github.searcher.service;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.github.searcher.dto.BatchSearchResult;
+import com.github.searcher.dto.RepositoryGrowth;
+import com.github.searcher.dto.RepositoryPage;
 import com.github.searcher.dto.SearchRequest;
 import com.github.searcher.handler.GitHubApiException;
 import com.github.searcher.handler.GitHubRateLimitExceededException;
 import com.github.searcher.model.GitHubRepository;
-import com.github.searcher.repository.GitHubRepositoryRepository;
+import com.github.searcher.model.RepositoryChange;
+import com.github.searcher.model.RepositorySort;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 @Service
 @RequiredArgsConstructor
@@ -37,15 +53,145 @@ import reactor.core.scheduler.Schedulers;
 public class GitHubService {
 
     private final WebClient webClient;
-    private final GitHubRepositoryRepository gitHubRepositoryRepository;
+    private final GitHubRepositoryStore repositoryStore;
+    private final GitHubSearchCache searchCache;
+    private final GitHubMetrics metrics;
+    private final RepositoryReadModel readModel;
+    private final RepositoryTextIndex textIndex;
+    private final RepositoryLeaderboards leaderboards;
+    private final GitHubRateLimitGovernor rateLimitGovernor;
+    private final RepositoryWriteBehindBuffer writeBehindBuffer;
+    private final RepositoryTrending trending;
+
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final int MAX_PER_PAGE = 100;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final int DEFAULT_GROWTH_DAYS = 30;
+    private static final int MAX_GROWTH_DAYS = 365;
+    private static final int DEFAULT_GROWTH_LIMIT = 20;
 
     @Value("${github.api.search.repositories.path:/search/repositories}")
     private String searchRepositoriesPath;
 
+    @Value("${github.api.search.batch.concurrency:4}")
+    private int batchConcurrency;
+
     public Mono<List<GitHubRepository>> searchAndSaveRepositories(SearchRequest searchRequest) {
-        String query = searchRequest.getQuery();
-        String language = searchRequest.getLanguage();
-        String sort = searchRequest.getSort();
+        return streamAndSaveRepositories(searchRequest).collectList();
+    }
+
+    /**
+     * Fetches and persists search results page by page, emitting each repository once its page is saved.
+     * Without {@code maxResults} only the first page (GitHub's default page size) is fetched. Otherwise
+     * pages of 100 are followed up to {@code maxResults}, with the next page requested while the
+     * current one is being persisted. The last page is trimmed to {@code maxResults} before it is
+     * persisted, so rows past the limit are neither written nor emitted. With write-behind enabled,
+     * pages are queued for persistence and emitted as fetched.
+     */
+    public Flux<GitHubRepository> streamAndSaveRepositories(SearchRequest searchRequest) {
+        return Flux.defer(() -> {
+            AtomicLong remaining = new AtomicLong(resultLimit(searchRequest));
+            return fetchPages(searchRequest)
+                    .map(page -> {
+                        List<GitHubRepository> items = page.getItems();
+                        int kept = (int) Math.min(items.size(), remaining.get());
+                        remaining.addAndGet(-kept);
+                        return kept < items.size() ? items.subList(0, kept) : items;
+                    })
+                    .filter(items -> !items.isEmpty())
+                    // Prefetch of 1: at most one fetched page waits while the previous one is persisted.
+                    .concatMap(this::persistPage, 1)
+                    .flatMapIterable(Function.identity());
+        });
+    }
+
+    /**
+     * Runs several searches with bounded concurrency and emits one result per search, in completion
+     * order, as soon as that search's repositories have been saved.
+     * <p>
+     * At most {@code github.api.search.batch.concurrency} searches are in flight, and fewer when the
+     * rate-limit governor has fewer search tokens left, so a batch queues behind the budget instead
+     * of being rejected by GitHub. Each completed search is saved in its own upsert, so one upsert
+     * holds at most one search's results. Searches are saved one at a time, and a repository that an
+     * earlier search of the batch already saved is not written again. A failed search is reported
+     * in its result and does not fail the batch.
+     */
+    public Flux<BatchSearchResult> searchAndSaveBatch(List<SearchRequest> searchRequests) {
+        return Flux.defer(() -> {
+            int concurrency = (int) Math.max(1, Math.min(batchConcurrency, rateLimitGovernor.availableTokens()));
+            log.info("Running a batch of {} searches, {} at a time.", searchRequests.size(), concurrency);
+            Map<Long, GitHubRepository> saved = new HashMap<>();
+            return Flux.range(0, searchRequests.size())
+                    .flatMap(index -> fetchPages(searchRequests.get(index))
+                            .flatMapIterable(GitHubSearchPage::getItems)
+                            .take(resultLimit(searchRequests.get(index)))
+                            .collectList()
+                            .map(items -> new BatchSearchResult(index, searchRequests.get(index), items, null))
+                            .onErrorResume(error -> {
+                                log.warn("Search {} of the batch failed: {}", index, error.getMessage());
+                                return Mono.just(new BatchSearchResult(index, searchRequests.get(index), List.of(), error.getMessage()));
+                            }), concurrency)
+                    // Saving one search at a time keeps a repository shared by two searches to one insert.
+                    .concatMap(result -> saveBatchResult(result, saved));
+        });
+    }
+
+    /**
+     * Saves the repositories of one batch search that no earlier search of the batch has saved, and
+     * points the result at the saved rows.
+     */
+    private Mono<BatchSearchResult> saveBatchResult(BatchSearchResult result, Map<Long, GitHubRepository> saved) {
+        Map<Long, GitHubRepository> unsaved = new LinkedHashMap<>();
+        for (GitHubRepository repository : result.getRepositories()) {
+            if (!saved.containsKey(repository.getId())) {
+                unsaved.putIfAbsent(repository.getId(), repository);
+            }
+        }
+        return saveAll(List.copyOf(unsaved.values())).map(rows -> {
+            rows.forEach(row -> saved.put(row.getId(), row));
+            result.setRepositories(result.getRepositories().stream()
+                    .map(repository -> saved.get(repository.getId()))
+                    .toList());
+            return result;
+        });
+    }
+
+    private Flux<GitHubSearchPage> fetchPages(SearchRequest searchRequest) {
+        String searchUrl = buildSearchUrl(searchRequest);
+        Integer maxResults = searchRequest.getMaxResults();
+
+        if (maxResults == null) {
+            return fetchPage(searchUrl).flux();
+        }
+
+        int limit = Math.min(maxResults, MAX_SEARCH_RESULTS);
+        int perPage = Math.min(limit, MAX_PER_PAGE);
+
+        return fetchPage(pageUrl(searchUrl, perPage, 1))
+                .flatMapMany(firstPage -> {
+                    long available = Math.min(limit, firstPage.getTotalCount());
+                    int pageCount = (int) ((available + perPage - 1) / perPage);
+                    log.info("GitHub reports {} results; fetching {} page(s) of {}.", firstPage.getTotalCount(), Math.max(pageCount, 1), perPage);
+                    return Flux.just(firstPage)
+                            .concatWith(Flux.range(2, Math.max(0, pageCount - 1))
+                                    .concatMap(page -> fetchPage(pageUrl(searchUrl, perPage, page))));
+                })
+                .takeUntil(page -> page.getItems().size() < perPage);
+    }
+
+    private static long resultLimit(SearchRequest searchRequest) {
+        return searchRequest.getMaxResults() == null ? Long.MAX_VALUE : Math.min(searchRequest.getMaxResults(), MAX_SEARCH_RESULTS);
+    }
+
+    /**
+     * Builds the search URL from normalized parameters, so equivalent requests share a cache entry.
+     */
+    private String buildSearchUrl(SearchRequest searchRequest) {
+        String query = searchRequest.getQuery().trim().replaceAll("\\s+", " ");
+        String language = normalize(searchRequest.getLanguage());
+        String sort = normalize(searchRequest.getSort());
 
         StringBuilder uriBuilder = new StringBuilder(searchRepositoriesPath)
                 .append("?q=").append(query);
@@ -57,13 +203,32 @@ public class GitHubService {
             uriBuilder.append("&sort=").append(sort);
         }
         uriBuilder.append("&order=desc");
+        return uriBuilder.toString();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private String pageUrl(String searchUrl, int perPage, int page) {
+        return searchUrl + "&per_page=" + perPage + "&page=" + page;
+    }
+
+    private Mono<GitHubSearchPage> fetchPage(String apiUrl) {
+        return searchCache.get(apiUrl, etag -> requestPage(apiUrl, etag));
+    }
 
-        String apiUrl = uriBuilder.toString();
+    private Mono<GitHubSearchPage> requestPage(String apiUrl, String etag) {
         log.info("Attempting to fetch repositories from GitHub API using URL: {}", apiUrl);
 
-        return webClient.get()
+        WebClient.RequestHeadersSpec<?> request = webClient.get()
                 .uri(apiUrl)
-                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (etag != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+
+        return request
                 .retrieve()
                 .onStatus(HttpStatusCode::is4xxClientError, clientResponse -> {
                     Optional<String> rateLimitReset = clientResponse.headers().asHttpHeaders().containsKey("X-RateLimit-Reset") ?
@@ -97,98 +262,237 @@ public class GitHubService {
                                     return Mono.error(new RuntimeException("An unexpected error occurred during GitHub API call: " + errorBody));
                                 })
                 )
-                .bodyToMono(JsonNode.class)
+                .toEntityFlux(DataBuffer.class)
+                .flatMap(this::toSearchPage)
                 .onErrorMap(throwable -> {
                     if (throwable instanceof GitHubRateLimitExceededException || throwable instanceof GitHubApiException) {
                         return throwable;
                     }
                     log.error("An unexpected error occurred in WebClient reactive stream during GitHub API call: {}", throwable.getMessage(), throwable);
                     return new RuntimeException("Error fetching or saving repositories: " + throwable.getMessage(), throwable);
-                })
-                .flatMapMany(responseBody -> {
-                    if (responseBody == null || !responseBody.has("items") || !responseBody.get("items").isArray()) {
+                });
+    }
+
+    private Mono<GitHubSearchPage> toSearchPage(ResponseEntity<Flux<DataBuffer>> response) {
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            log.info("GitHub API reported cached search results as not modified.");
+            return response.getBody()
+                    .doOnNext(DataBufferUtils::release)
+                    .then(Mono.just(GitHubSearchPage.notModified()));
+        }
+        GitHubSearchResponseDecoder decoder = new GitHubSearchResponseDecoder();
+        return decoder.decode(response.getBody())
+                .collectList()
+                .map(items -> {
+                    if (!decoder.hasItems()) {
                         log.warn("GitHub API response did not contain 'items' array or was null.");
-                        return Flux.empty();
                     }
-                    return Flux.fromIterable(StreamSupport.stream(responseBody.get("items").spliterator(), false)
-                            .map(this::mapJsonNodeToGitHubRepository)
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toList()));
-                })
-                .flatMap(fetchedRepo ->
-                    Mono.fromCallable(() -> {
-                        Optional<GitHubRepository> existingRepoOptional = gitHubRepositoryRepository.findById(fetchedRepo.getId());
-                        if (existingRepoOptional.isPresent()) {
-                            GitHubRepository existingRepo = existingRepoOptional.get();
-                            if (!existingRepo.equals(fetchedRepo)) {
-                                existingRepo.updateFrom(fetchedRepo);
-                                gitHubRepositoryRepository.save(existingRepo);
-                                log.info("Updated existing repository: {}", existingRepo.getName());
-                                return existingRepo;
-                            } else {
-                                log.info("Repository {} already exists and is up-to-date. No update needed.", existingRepo.getName());
-                                return existingRepo;
-                            }
-                        } else {
-                            gitHubRepositoryRepository.save(fetchedRepo);
-                            log.info("Saved new repository: {}", fetchedRepo.getName());
-                            return fetchedRepo;
-                        }
-                    }).subscribeOn(Schedulers.boundedElastic())
-                )
-                .collectList();
+                    return new GitHubSearchPage(decoder.getTotalCount(), items, response.getHeaders().getETag(), false);
+                });
+    }
+
+    private Mono<List<GitHubRepository>> persistPage(List<GitHubRepository> fetchedRepos) {
+        if (writeBehindBuffer.isEnabled()) {
+            return writeBehindBuffer.submit(fetchedRepos).thenReturn(fetchedRepos);
+        }
+        return saveAll(fetchedRepos);
+    }
+
+    private Mono<List<GitHubRepository>> saveAll(List<GitHubRepository> fetchedRepos) {
+        if (fetchedRepos.isEmpty()) {
+            return Mono.just(fetchedRepos);
+        }
+        return repositoryStore.upsertAll(fetchedRepos).map(result -> {
+            metrics.recordUpsert(fetchedRepos.size(), result);
+            log.info("Persisted {} repositories: {} inserted, {} updated, {} unchanged.",
+                    result.getRepositories().size(), result.getInserted().size(),
+                    result.getUpdated().size(), result.getUnchanged().size());
+            return result.getRepositories();
+        });
     }
 
     public Mono<List<GitHubRepository>> getStoredRepositories(String language, Integer minStars, String sort) {
-        return Mono.fromCallable(() -> {
-            Specification<GitHubRepository> spec = Specification.where(null);
+        return Mono.defer(() -> {
+            log.info("Retrieving stored repositories with filters: language='{}', minStars='{}', sort='{}'",
+                    language != null ? language : "N/A", minStars != null ? minStars : "N/A", sort != null ? sort : "N/A");
+            if (RepositoryTrending.isTrendingSort(sort)) {
+                List<GitHubRepository> repositories = trending.top(language, minStars, Integer.MAX_VALUE);
+                log.info("Found {} trending stored repositories matching criteria.", repositories.size());
+                return Mono.just(repositories);
+            }
+            if (readModel.isReady()) {
+                List<GitHubRepository> repositories = readModel.query(language, minStars, RepositorySort.from(sort));
+                log.info("Found {} stored repositories matching criteria in the in-memory read model.", repositories.size());
+                return Mono.just(repositories);
+            }
+            Specification<GitHubRepository> spec = storedRepositoriesSpec(language, minStars);
+            Sort sortOrder = RepositorySort.from(sort).toKeysetSort(hasLanguage(language));
+            return repositoryStore.findSorted(spec, sortOrder)
+                    .doOnNext(repositories -> log.info("Found {} stored repositories matching criteria.", repositories.size()));
+        });
+    }
 
-            if (language != null && !language.isEmpty()) {
-                spec = spec.and((root, query, cb) -> cb.equal(cb.lower(root.get("language")), language.toLowerCase()));
+    /**
+     * Full-text search over stored names, owners and descriptions, best match first. Served from the
+     * in-memory index once it is loaded; before that, falls back to a substring match in the database
+     * ordered by stars.
+     */
+    public Mono<List<GitHubRepository>> searchStoredRepositories(String query, String language, Integer minStars, Integer limit) {
+        int maxResults = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return Mono.defer(() -> {
+            if (textIndex.isReady()) {
+                return textIndex.search(query, language, minStars, maxResults)
+                        .doOnNext(repositories -> log.info("Full-text search for '{}' matched {} stored repositories.", query, repositories.size()));
             }
-            if (minStars != null) {
-                spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("starsCount"), minStars));
+            List<String> terms = RepositoryTextIndex.tokenize(query);
+            if (terms.isEmpty()) {
+                return Mono.just(List.<GitHubRepository>of());
             }
+            log.info("Full-text index not ready; matching '{}' in the database.", query);
+            Specification<GitHubRepository> spec = storedRepositoriesSpec(language, minStars).and(textMatch(terms));
+            return repositoryStore.findFirst(spec, RepositorySort.STARS.toKeysetSort(hasLanguage(language)), maxResults);
+        });
+    }
 
-            Sort sortOrder = Sort.by(Sort.Direction.DESC, "starsCount");
-            if (sort != null && !sort.isEmpty()) {
-                switch (sort.toLowerCase()) {
-                    case "forks":
-                        sortOrder = Sort.by(Sort.Direction.DESC, "forksCount");
-                        break;
-                    case "lastupdated":
-                        sortOrder = Sort.by(Sort.Direction.DESC, "lastUpdated");
-                        break;
-                    case "stars":
-                    default:
-                        sortOrder = Sort.by(Sort.Direction.DESC, "starsCount");
-                        break;
-                }
+    /**
+     * Returns one page of stored repositories ordered by (sort key, id), starting after {@code cursor}.
+     * Each page is a bounded range query, so cost does not grow with how deep the client pages.
+     * First pages are served from the in-memory leaderboards when they can answer.
+     */
+    public Mono<RepositoryPage> getStoredRepositoriesPage(String language, Integer minStars, String sort, String cursor, Integer limit) {
+        RepositorySort repositorySort = RepositorySort.from(sort);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return Mono.defer(() -> {
+            if (RepositoryTrending.isTrendingSort(sort)) {
+                return trendingPage(language, minStars, cursor, pageSize);
             }
-            log.info("Retrieving stored repositories with filters: language='{}', minStars='{}', sort='{}'",
-                    language != null ? language : "N/A", minStars != null ? minStars : "N/A", sort != null ? sort : "N/A");
-            List<GitHubRepository> repositories = gitHubRepositoryRepository.findAll(spec, sortOrder);
-            log.info("Found {} stored repositories matching criteria.", repositories.size());
-            return repositories;
-        }).subscribeOn(Schedulers.boundedElastic());
+            RepositoryCursor after = cursor == null ? null : RepositoryCursor.decode(cursor, repositorySort);
+            Mono<RepositoryPage> fromDatabase = Mono.defer(() -> findPage(language, minStars, repositorySort, after, pageSize));
+            Mono<RepositoryPage> result = after != null ? fromDatabase
+                    : leaderboards.top(language, minStars, repositorySort, pageSize + 1)
+                            .map(rows -> toPage(rows, repositorySort, pageSize))
+                            .switchIfEmpty(fromDatabase);
+            return result
+                    .doOnNext(page -> log.info("Returning page of {} stored repositories (language='{}', minStars='{}', sort='{}', more={}).",
+                            page.getRepositories().size(), language, minStars, repositorySort, page.getNextCursor() != null));
+        });
     }
 
-    private GitHubRepository mapJsonNodeToGitHubRepository(JsonNode node) {
-        if (node == null || !node.has("id") || !node.has("name") || !node.has("owner") || !node.get("owner").has("login")) {
-            log.warn("Skipping repository due to missing essential fields: id, name, or owner. Node: {}", node);
-            return null;
+    /**
+     * Trending order changes as scores move, so it has no stable cursor: the only page is the top
+     * {@code pageSize}, read from the in-memory ranking.
+     */
+    private Mono<RepositoryPage> trendingPage(String language, Integer minStars, String cursor, int pageSize) {
+        if (cursor != null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: trending listings are not paginated"));
         }
+        List<GitHubRepository> repositories = trending.top(language, minStars, pageSize);
+        log.info("Returning top {} trending stored repositories (language='{}', minStars='{}').", repositories.size(), language, minStars);
+        return Mono.just(new RepositoryPage(repositories, null));
+    }
+
+    /**
+     * Streams all matching stored repositories by walking keyset pages, so at most one page is held in memory.
+     */
+    public Flux<GitHubRepository> streamStoredRepositories(String language, Integer minStars, String sort) {
+        if (RepositoryTrending.isTrendingSort(sort)) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "The trending sort cannot be streamed; use 'limit' for its top page"));
+        }
+        RepositorySort repositorySort = RepositorySort.from(sort);
+        return fetchStreamChunk(language, minStars, repositorySort, null)
+                .expand(page -> page.getNextCursor() == null ? Mono.empty()
+                        : fetchStreamChunk(language, minStars, repositorySort, RepositoryCursor.decode(page.getNextCursor(), repositorySort)))
+                .concatMapIterable(RepositoryPage::getRepositories);
+    }
 
-        Long id = node.get("id").asLong();
-        String name = node.get("name").asText();
-        String description = node.has("description") && !node.get("description").isNull() ? node.get("description").asText() : null;
-        String owner = node.get("owner").get("login").asText();
-        String language = node.has("language") && !node.get("language").isNull() ? node.get("language").asText() : null;
-        Integer stars = node.has("stargazers_count") ? node.get("stargazers_count").asInt() : 0;
-        Integer forks = node.has("forks_count") ? node.get("forks_count").asInt() : 0;
-        OffsetDateTime lastUpdated = node.has("updated_at") && !node.get("updated_at").isNull() ?
-                OffsetDateTime.parse(node.get("updated_at").asText(), DateTimeFormatter.ISO_OFFSET_DATE_TIME) : null;
-
-        return new GitHubRepository(id, name, description, owner, language, stars, forks, lastUpdated);
+    /**
+     * Streams the change log after {@code since} in version order, reading it in bounded chunks.
+     * Ends at the newest committed change; the consumer continues from the last version it got.
+     */
+    public Flux<RepositoryChange> streamChanges(long since) {
+        return repositoryStore.findChanges(since, STREAM_CHUNK_SIZE)
+                .expand(changes -> changes.size() < STREAM_CHUNK_SIZE ? Mono.empty()
+                        : repositoryStore.findChanges(changes.get(changes.size() - 1).getVersion(), STREAM_CHUNK_SIZE))
+                .concatMapIterable(Function.identity());
+    }
+
+    /**
+     * Stored repositories that gained the most stars over the last {@code days} UTC days, read
+     * from the daily stats rollup.
+     */
+    public Mono<List<RepositoryGrowth>> getFastestGrowing(String language, Integer days, Integer limit) {
+        int window = days == null ? DEFAULT_GROWTH_DAYS : Math.max(1, Math.min(days, MAX_GROWTH_DAYS));
+        int maxResults = limit == null ? DEFAULT_GROWTH_LIMIT : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return Mono.defer(() -> {
+            LocalDate start = LocalDate.now(ZoneOffset.UTC).minusDays(window);
+            return repositoryStore.findGrowth(language, start, maxResults)
+                    .doOnNext(growth -> log.info("Returning {} fastest-growing stored repositories since {} (language='{}').",
+                            growth.size(), start, language));
+        });
+    }
+
+    private Mono<RepositoryPage> fetchStreamChunk(String language, Integer minStars, RepositorySort sort, RepositoryCursor after) {
+        return findPage(language, minStars, sort, after, STREAM_CHUNK_SIZE);
+    }
+
+    private Mono<RepositoryPage> findPage(String language, Integer minStars, RepositorySort sort, RepositoryCursor after, int pageSize) {
+        Specification<GitHubRepository> spec = storedRepositoriesSpec(language, minStars);
+        if (after != null) {
+            spec = spec.and(keysetAfter(after));
+        }
+        return repositoryStore.findFirst(spec, sort.toKeysetSort(hasLanguage(language)), pageSize + 1)
+                .map(rows -> toPage(rows, sort, pageSize));
+    }
+
+    private RepositoryPage toPage(List<GitHubRepository> rows, RepositorySort sort, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new RepositoryPage(rows, null);
+        }
+        List<GitHubRepository> page = rows.subList(0, pageSize);
+        return new RepositoryPage(new ArrayList<>(page), RepositoryCursor.after(sort, page.get(pageSize - 1)).encode());
+    }
+
+    private static Specification<GitHubRepository> textMatch(List<String> terms) {
+        return (root, query, cb) -> cb.or(terms.stream()
+                .flatMap(term -> Stream.of("name", "ownerName", "description")
+                        .map(field -> cb.like(cb.lower(root.get(field)), "%" + term + "%")))
+                .toArray(Predicate[]::new));
+    }
+
+    private static boolean hasLanguage(String language) {
+        return language != null && !language.isEmpty();
+    }
+
+    private Specification<GitHubRepository> storedRepositoriesSpec(String language, Integer minStars) {
+        Specification<GitHubRepository> spec = Specification.where(null);
+
+        if (hasLanguage(language)) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("languageLower"), language.toLowerCase(Locale.ROOT)));
+        }
+        if (minStars != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("starsCount"), minStars));
+        }
+        return spec;
+    }
+
+    private Specification<GitHubRepository> keysetAfter(RepositoryCursor cursor) {
+        String property = cursor.getSort().getProperty();
+        return (root, query, cb) -> cursor.getSort() == RepositorySort.LAST_UPDATED
+                ? keysetPredicate(root, cb, property, cursor.getLastUpdated(), cursor.getId())
+                : keysetPredicate(root, cb, property, cursor.getCount(), cursor.getId());
+    }
+
+    /**
+     * Rows after the cursor in keyset order; rows without a key sort last.
+     */
+    private static <T extends Comparable<? super T>> Predicate keysetPredicate(Root<GitHubRepository> root, CriteriaBuilder cb,
+                                                                              String property, T value, long id) {
+        Path<T> key = root.get(property);
+        Predicate laterId = cb.greaterThan(root.<Long>get("id"), id);
+        if (value == null) {
+            return cb.and(cb.isNull(key), laterId);
+        }
+        return cb.or(cb.lessThan(key, value), cb.isNull(key),
+                cb.and(cb.equal(key, value), laterId));
     }
 }
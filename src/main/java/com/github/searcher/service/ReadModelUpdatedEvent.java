@@ -0,0 +1,19 @@
+package com.github.searcher.service;
+
+import java.util.List;
+
+import com.github.searcher.model.GitHubRepository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published once {@link RepositoryReadModel} has swapped in a snapshot containing the changed
+ * rows, so views derived from its listings can refresh what the upsert event was too early for.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ReadModelUpdatedEvent {
+
+    private final List<GitHubRepository> changed;
+}
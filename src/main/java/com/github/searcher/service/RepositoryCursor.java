@@ -0,0 +1,86 @@
+package com.github.searcher.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositorySort;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Position in a keyset-paginated listing: the sort key and id of the last row
+ * returned. Clients only ever see it as an opaque, URL-safe token. A missing key
+ * is encoded as {@code -1}, the value rows without one sort as.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RepositoryCursor {
+
+    private static final String SEPARATOR = "|";
+    private static final String NO_KEY = "-1";
+
+    private final RepositorySort sort;
+    private final Integer count;
+    private final OffsetDateTime lastUpdated;
+    private final long id;
+
+    public static RepositoryCursor after(RepositorySort sort, GitHubRepository last) {
+        switch (sort) {
+            case FORKS:
+                return new RepositoryCursor(sort, last.getForksCount(), null, last.getId());
+            case LAST_UPDATED:
+                return new RepositoryCursor(sort, null, last.getLastUpdated(), last.getId());
+            case STARS:
+            default:
+                return new RepositoryCursor(sort, last.getStarsCount(), null, last.getId());
+        }
+    }
+
+    public String encode() {
+        String key;
+        if (sort == RepositorySort.LAST_UPDATED) {
+            key = lastUpdated == null ? NO_KEY : lastUpdated.toInstant().toString();
+        } else {
+            key = count == null ? NO_KEY : count.toString();
+        }
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RepositoryCursor decode(String token, RepositorySort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Unexpected cursor format");
+            }
+            RepositorySort sort = RepositorySort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new IllegalArgumentException("Cursor was issued for sort " + sort);
+            }
+            long id = Long.parseLong(parts[2]);
+            if (NO_KEY.equals(parts[1])) {
+                return new RepositoryCursor(sort, null, null, id);
+            }
+            if (sort == RepositorySort.LAST_UPDATED) {
+                return new RepositoryCursor(sort, null, OffsetDateTime.ofInstant(Instant.parse(parts[1]), ZoneOffset.UTC), id);
+            }
+            int count = Integer.parseInt(parts[1]);
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative count " + count);
+            }
+            return new RepositoryCursor(sort, count, null, id);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + e.getMessage());
+        }
+    }
+}
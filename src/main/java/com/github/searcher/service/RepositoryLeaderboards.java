@@ -0,0 +1,237 @@
+package com.github.searcher.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositorySort;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Top-K stored repositories per (language, sort key), kept current from committed upserts, so the
+ * first page of a listing is read from memory instead of the table.
+ * <p>
+ * A board holds the leading rows of its listing, ordered like the keyset query (key descending,
+ * then id). It is loaded from the database on first use and then follows upserts: a changed row
+ * is re-ranked, and the board keeps at most {@code size + 1} rows. A row that falls behind the
+ * last one held is dropped, because the rows not held might outrank it; the board then holds a
+ * shorter but still exact prefix, and is reloaded once it shrinks below half its size. Queries
+ * the prefix cannot answer (deep {@code minStars} filters, shrunken boards) return empty and the
+ * caller falls back to the database; only a board that is not ready is (re)loaded for them. Boards are created per requested language, up to
+ * {@code max-boards}, least recently used first out.
+ */
+@Component
+@Slf4j
+public class RepositoryLeaderboards {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::key).reversed()
+            .thenComparingLong(Entry::id);
+
+    private final boolean enabled;
+    /** One more than the largest page served, so a full page can tell whether there is a next one. */
+    private final int capacity;
+    private final GitHubRepositoryStore repositoryStore;
+    private final Cache<BoardKey, Board> boards;
+
+    public RepositoryLeaderboards(@Value("${github.leaderboard.enabled:true}") boolean enabled,
+                                  @Value("${github.leaderboard.size:1000}") int size,
+                                  @Value("${github.leaderboard.max-boards:500}") long maxBoards,
+                                  GitHubRepositoryStore repositoryStore) {
+        this.enabled = enabled;
+        this.capacity = size + 1;
+        this.repositoryStore = repositoryStore;
+        this.boards = Caffeine.newBuilder()
+                .maximumSize(maxBoards)
+                .build();
+    }
+
+    /**
+     * The first {@code limit} rows matching the language and minimum stars in {@code sort} order,
+     * or empty if the board is not loaded yet or holds too few rows to answer.
+     */
+    public Mono<List<GitHubRepository>> top(String language, Integer minStars, RepositorySort sort, int limit) {
+        if (!enabled || limit > capacity) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            BoardKey key = new BoardKey(language == null ? "" : language.toLowerCase(Locale.ROOT), sort);
+            Board board = boards.get(key, Board::new);
+            List<GitHubRepository> rows = board.top(minStars, limit);
+            if (rows != null) {
+                return Mono.just(rows);
+            }
+            // A ready board that cannot answer would load the same prefix again.
+            if (!board.isReady()) {
+                load(board);
+            }
+            return Mono.empty();
+        });
+    }
+
+    @EventListener
+    public void onUpsert(RepositoriesUpsertedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<GitHubRepository> changed = event.getChanged();
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<GitHubRepository> copies = changed.stream().map(GitHubRepository::copy).toList();
+        boards.asMap().values().forEach(board -> board.applyAll(copies));
+    }
+
+    private void load(Board board) {
+        if (!board.startLoading()) {
+            return;
+        }
+        BoardKey key = board.key;
+        Specification<GitHubRepository> spec = key.language().isEmpty()
+                ? Specification.where(null)
+                : (root, query, cb) -> cb.equal(root.get("languageLower"), key.language());
+        repositoryStore.findFirst(spec, key.sort().toKeysetSort(!key.language().isEmpty()), capacity + 1)
+                .subscribe(board::loaded, error -> {
+                    board.loadFailed();
+                    log.warn("Failed to load the {} leaderboard; listings keep using the database.", key, error);
+                });
+    }
+
+    private static long sortKey(GitHubRepository row, RepositorySort sort) {
+        return switch (sort) {
+            case STARS -> row.getStarsCount() == null ? -1 : row.getStarsCount();
+            case FORKS -> row.getForksCount() == null ? -1 : row.getForksCount();
+            // Microseconds, the precision the column stores.
+            case LAST_UPDATED -> row.getLastUpdated().toEpochSecond() * 1_000_000 + row.getLastUpdated().getNano() / 1_000;
+        };
+    }
+
+    private record BoardKey(String language, RepositorySort sort) {
+
+        boolean matches(GitHubRepository row) {
+            return language.isEmpty()
+                    || (row.getLanguage() != null && row.getLanguage().toLowerCase(Locale.ROOT).equals(language));
+        }
+    }
+
+    private record Entry(long key, long id, GitHubRepository row) {
+    }
+
+    private final class Board {
+
+        private final BoardKey key;
+        private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+        private final Map<Long, Entry> entriesById = new HashMap<>();
+        /** The board holds every row of its language, not just a prefix. */
+        private boolean whole;
+        private boolean ready;
+        /** Non-null while loading: changes to replay over the loaded rows. */
+        private List<GitHubRepository> changedWhileLoading;
+
+        private Board(BoardKey key) {
+            this.key = key;
+        }
+
+        synchronized List<GitHubRepository> top(Integer minStars, int limit) {
+            if (!ready) {
+                return null;
+            }
+            List<GitHubRepository> rows = new ArrayList<>(limit);
+            for (Entry entry : entries) {
+                if (rows.size() == limit) {
+                    return rows;
+                }
+                if (minStars != null && (entry.row().getStarsCount() == null || entry.row().getStarsCount() < minStars)) {
+                    if (key.sort() == RepositorySort.STARS) {
+                        return rows;
+                    }
+                    continue;
+                }
+                rows.add(entry.row());
+            }
+            return rows.size() == limit || whole ? rows : null;
+        }
+
+        synchronized boolean isReady() {
+            return ready;
+        }
+
+        synchronized boolean startLoading() {
+            if (changedWhileLoading != null) {
+                return false;
+            }
+            changedWhileLoading = new ArrayList<>();
+            return true;
+        }
+
+        synchronized void loaded(List<GitHubRepository> rows) {
+            entries.clear();
+            entriesById.clear();
+            whole = rows.size() <= capacity;
+            rows.stream().limit(capacity).forEach(row -> insert(entryOf(row.copy())));
+            ready = true;
+            List<GitHubRepository> replay = changedWhileLoading;
+            changedWhileLoading = null;
+            replay.forEach(this::apply);
+            log.debug("Loaded the {} leaderboard with {} rows.", key, entries.size());
+        }
+
+        synchronized void loadFailed() {
+            changedWhileLoading = null;
+        }
+
+        synchronized void applyAll(List<GitHubRepository> rows) {
+            rows.forEach(this::apply);
+        }
+
+        private void apply(GitHubRepository row) {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(row);
+            }
+            if (!ready) {
+                return;
+            }
+            Entry previous = entriesById.remove(row.getId());
+            if (previous != null) {
+                entries.remove(previous);
+            }
+            if (key.matches(row)) {
+                Entry entry = entryOf(row);
+                if (whole || (!entries.isEmpty() && ORDER.compare(entry, entries.last()) < 0)) {
+                    insert(entry);
+                }
+            }
+            if (!whole && entries.size() < capacity / 2) {
+                ready = false;
+            }
+        }
+
+        private Entry entryOf(GitHubRepository row) {
+            return new Entry(sortKey(row, key.sort()), row.getId(), row);
+        }
+
+        private void insert(Entry entry) {
+            entries.add(entry);
+            entriesById.put(entry.id(), entry);
+            if (entries.size() > capacity) {
+                Entry last = entries.pollLast();
+                entriesById.remove(last.id());
+                whole = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.github.searcher.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositorySort;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Optional in-process, columnar copy of github_repositories for the filter/sort listing.
+ * <p>
+ * Rows are kept in id order as primitive columns (stars, forks, last-updated epoch seconds and a
+ * dictionary-encoded lower-case language), with one presorted index permutation per sort key,
+ * both overall and per language. A query walks the matching permutation and filters on the
+ * columns, returning the stored row objects without touching JPA; for the stars sort the walk
+ * stops at the first row below {@code minStars}.
+ * <p>
+ * The model is loaded once at startup and follows every committed upsert. Writes go to a map of
+ * rows and schedule a rebuild of the columns on the persistence scheduler; upserts arriving while
+ * one is pending share it, and the finished snapshot is swapped in atomically, so queries never
+ * build or wait and see each upsert shortly after it commits. An event carrying a row older than
+ * the stored one, by when it was checked or else last updated, is dropped. Until the initial load
+ * has finished the model reports itself not ready and callers fall back to the database. Once a
+ * snapshot with changed rows is in place, a {@link ReadModelUpdatedEvent} lists them.
+ */
+@Component
+@Slf4j
+public class RepositoryReadModel {
+
+    /** Row positions are packed into the low bits of the sort keys. */
+    private static final int POSITION_BITS = 22;
+    private static final int MAX_ROWS = 1 << POSITION_BITS;
+    private static final int NO_LANGUAGE = -1;
+
+    private final boolean enabled;
+    private final GitHubRepositoryStore repositoryStore;
+    private final Scheduler persistenceScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Guarded by {@code this}, together with {@link #rowsVersion} and {@link #unpublished}. */
+    private final TreeMap<Long, GitHubRepository> rowsById = new TreeMap<>();
+    private long rowsVersion;
+    /** Rows changed since the last rebuild took its copy. */
+    private List<GitHubRepository> unpublished = new ArrayList<>();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.build(List.of(), 0));
+    private volatile boolean ready;
+
+    public RepositoryReadModel(@Value("${github.read-model.enabled:false}") boolean enabled,
+                               GitHubRepositoryStore repositoryStore, Scheduler persistenceScheduler,
+                               ApplicationEventPublisher eventPublisher) {
+        this.enabled = enabled;
+        this.repositoryStore = repositoryStore;
+        this.persistenceScheduler = persistenceScheduler;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        repositoryStore.findAll(Specification.where(null), Sort.by("id"))
+                .subscribe(rows -> {
+                    if (rows.size() >= MAX_ROWS) {
+                        log.warn("Not enabling the in-memory read model: {} rows exceed its limit of {}.", rows.size(), MAX_ROWS);
+                        return;
+                    }
+                    synchronized (this) {
+                        // Rows upserted while loading are newer than what the query returned.
+                        rows.forEach(row -> rowsById.putIfAbsent(row.getId(), detach(row)));
+                        rowsVersion++;
+                    }
+                    // The first snapshot is built here, on the scheduler the load ran on, before any query uses it.
+                    rebuild();
+                    ready = true;
+                    log.info("Loaded {} repositories into the in-memory read model.", rows.size());
+                }, error -> log.error("Failed to load the in-memory read model; queries keep using the database.", error));
+    }
+
+    @EventListener
+    public void onUpsert(RepositoriesUpsertedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<GitHubRepository> changed = event.getChanged();
+        if (changed.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            int applied = 0;
+            for (GitHubRepository row : changed) {
+                GitHubRepository stored = rowsById.get(row.getId());
+                if (stored == null || !isOlder(row, stored)) {
+                    rowsById.put(row.getId(), detach(row));
+                    unpublished.add(row);
+                    applied++;
+                }
+            }
+            if (applied == 0) {
+                return;
+            }
+            rowsVersion++;
+            if (ready && rowsById.size() >= MAX_ROWS) {
+                ready = false;
+                log.warn("Disabling the in-memory read model: {} rows exceed its limit of {}.", rowsById.size(), MAX_ROWS);
+            }
+        }
+        if (rebuildPending.compareAndSet(false, true)) {
+            persistenceScheduler.schedule(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    /**
+     * Same result as the database listing: rows matching the (case-insensitive) language and
+     * minimum stars, ordered by the sort key descending with rows without one last, then by id,
+     * as {@link RepositorySort#toKeysetSort(boolean)} orders them.
+     */
+    public List<GitHubRepository> query(String language, Integer minStars, RepositorySort sort) {
+        Snapshot current = snapshot.get();
+        int[] order;
+        if (language == null || language.isEmpty()) {
+            order = current.order[sort.ordinal()];
+        } else {
+            Integer languageId = current.languageIds.get(language.toLowerCase(Locale.ROOT));
+            if (languageId == null) {
+                return List.of();
+            }
+            order = current.languageOrder[languageId][sort.ordinal()];
+        }
+
+        List<GitHubRepository> result = new ArrayList<>();
+        for (int position : order) {
+            if (minStars != null && current.stars[position] < minStars) {
+                if (sort == RepositorySort.STARS) {
+                    break;
+                }
+                continue;
+            }
+            result.add(current.rows[position]);
+        }
+        return result;
+    }
+
+    /**
+     * Builds a snapshot of the current rows and swaps it in, unless a build of newer rows finished
+     * first, then announces the rows changed since the previous build. Either way the current
+     * snapshot contains them by then.
+     */
+    private void rebuild() {
+        long start = System.nanoTime();
+        List<GitHubRepository> rows;
+        List<GitHubRepository> changed;
+        long version;
+        synchronized (this) {
+            rows = new ArrayList<>(rowsById.values());
+            version = rowsVersion;
+            changed = unpublished;
+            unpublished = new ArrayList<>();
+        }
+        Snapshot built = Snapshot.build(rows, version);
+        snapshot.accumulateAndGet(built, (current, next) -> next.version > current.version ? next : current);
+        log.debug("Rebuilt in-memory read model with {} rows in {}.", rows.size(), Duration.ofNanos(System.nanoTime() - start));
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new ReadModelUpdatedEvent(changed));
+        }
+    }
+
+    /**
+     * Copy of the row that keeps when it was checked, which {@link #isOlder} compares.
+     */
+    private static GitHubRepository detach(GitHubRepository row) {
+        GitHubRepository copy = row.copy();
+        copy.setLastChecked(row.getLastChecked());
+        return copy;
+    }
+
+    /**
+     * Whether {@code incoming} was observed before {@code stored}: by when each was last checked if
+     * both were, otherwise by when GitHub last updated them.
+     */
+    private static boolean isOlder(GitHubRepository incoming, GitHubRepository stored) {
+        if (incoming.getLastChecked() != null && stored.getLastChecked() != null) {
+            return incoming.getLastChecked().isBefore(stored.getLastChecked());
+        }
+        return incoming.getLastUpdated() != null && stored.getLastUpdated() != null
+                && incoming.getLastUpdated().isBefore(stored.getLastUpdated());
+    }
+
+    private static final class Snapshot {
+
+        /** {@code rowsVersion} the snapshot was built from. */
+        private final long version;
+        private final GitHubRepository[] rows;
+        private final int[] stars;
+        private final Map<String, Integer> languageIds;
+        /** [sort] -> row positions in sort order. */
+        private final int[][] order;
+        /** [language id][sort] -> row positions of that language in sort order. */
+        private final int[][][] languageOrder;
+
+        private Snapshot(long version, GitHubRepository[] rows, int[] stars, Map<String, Integer> languageIds, int[][] order, int[][][] languageOrder) {
+            this.version = version;
+            this.rows = rows;
+            this.stars = stars;
+            this.languageIds = languageIds;
+            this.order = order;
+            this.languageOrder = languageOrder;
+        }
+
+        /**
+         * @param rowsInIdOrder rows sorted by id, so a row's position doubles as the id tie-breaker
+         */
+        private static Snapshot build(Collection<GitHubRepository> rowsInIdOrder, long version) {
+            int size = rowsInIdOrder.size();
+            GitHubRepository[] rows = rowsInIdOrder.toArray(GitHubRepository[]::new);
+            int[] stars = new int[size];
+            int[] forks = new int[size];
+            long[] updatedEpochSeconds = new long[size];
+            int[] language = new int[size];
+            Map<String, Integer> languageIds = new HashMap<>();
+            List<Integer> languageCounts = new ArrayList<>();
+
+            for (int i = 0; i < size; i++) {
+                GitHubRepository row = rows[i];
+                stars[i] = row.getStarsCount() == null ? -1 : row.getStarsCount();
+                forks[i] = row.getForksCount() == null ? -1 : row.getForksCount();
+                updatedEpochSeconds[i] = row.getLastUpdated().toEpochSecond();
+                if (row.getLanguage() == null) {
+                    language[i] = NO_LANGUAGE;
+                } else {
+                    int id = languageIds.computeIfAbsent(row.getLanguage().toLowerCase(Locale.ROOT), key -> {
+                        languageCounts.add(0);
+                        return languageCounts.size() - 1;
+                    });
+                    languageCounts.set(id, languageCounts.get(id) + 1);
+                    language[i] = id;
+                }
+            }
+
+            int[][] order = new int[RepositorySort.values().length][];
+            order[RepositorySort.STARS.ordinal()] = sortDescending(stars);
+            order[RepositorySort.FORKS.ordinal()] = sortDescending(forks);
+            order[RepositorySort.LAST_UPDATED.ordinal()] = sortDescending(updatedEpochSeconds);
+
+            // Splitting the global permutations keeps each language's rows in the same order.
+            int[][][] languageOrder = new int[languageCounts.size()][RepositorySort.values().length][];
+            for (int sort = 0; sort < order.length; sort++) {
+                int[] filled = new int[languageCounts.size()];
+                for (int id = 0; id < languageCounts.size(); id++) {
+                    languageOrder[id][sort] = new int[languageCounts.get(id)];
+                }
+                for (int position : order[sort]) {
+                    int id = language[position];
+                    if (id != NO_LANGUAGE) {
+                        languageOrder[id][sort][filled[id]++] = position;
+                    }
+                }
+            }
+            return new Snapshot(version, rows, stars, languageIds, order, languageOrder);
+        }
+
+        private static int[] sortDescending(int[] keys) {
+            long[] packed = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                packed[i] = pack((long) Integer.MAX_VALUE - keys[i], i);
+            }
+            return unpack(packed);
+        }
+
+        private static int[] sortDescending(long[] keys) {
+            long[] packed = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                // Epoch seconds are far below 2^40, so the inverted key stays positive and fits above the position bits.
+                packed[i] = pack((1L << 40) - keys[i], i);
+            }
+            return unpack(packed);
+        }
+
+        /**
+         * Ascending order of the packed value is descending key, then ascending position (id).
+         */
+        private static long pack(long invertedKey, int position) {
+            return (invertedKey << POSITION_BITS) | position;
+        }
+
+        private static int[] unpack(long[] packed) {
+            Arrays.sort(packed);
+            int[] positions = new int[packed.length];
+            for (int i = 0; i < packed.length; i++) {
+                positions[i] = (int) (packed[i] & (MAX_ROWS - 1));
+            }
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.searcher.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Background rollup of the change log into per-day star and fork counts.
+ * <p>
+ * Every {@code interval} the entries logged since the last rollup are folded into
+ * {@code repository_daily_stats}, {@code batch-size} entries per transaction, until the log is
+ * caught up. Growth queries read only the rollup, so they cost one row per repository however
+ * often it changed. Changes logged since the last cycle are not reflected in the baseline yet,
+ * which only matters for windows that start within the last {@code interval}.
+ */
+@Component
+@Slf4j
+public class RepositoryStatsRollup {
+
+    private final boolean enabled;
+    private final Duration interval;
+    private final int batchSize;
+    private final GitHubRepositoryStore repositoryStore;
+
+    private Disposable schedule;
+
+    public RepositoryStatsRollup(@Value("${github.stats.rollup.enabled:true}") boolean enabled,
+                                 @Value("${github.stats.rollup.interval:5m}") Duration interval,
+                                 @Value("${github.stats.rollup.batch-size:1000}") int batchSize,
+                                 GitHubRepositoryStore repositoryStore) {
+        this.enabled = enabled;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.repositoryStore = repositoryStore;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Rolling up repository stats every {} in batches of {}.", interval, batchSize);
+        schedule = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> rollUp()
+                        .onErrorResume(error -> {
+                            log.error("Repository stats rollup failed.", error);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    /**
+     * Rolls up everything logged so far and returns the number of change-log entries consumed.
+     */
+    public Mono<Long> rollUp() {
+        return repositoryStore.rollUpDailyStats(batchSize)
+                .expand(consumed -> consumed < batchSize ? Mono.empty() : repositoryStore.rollUpDailyStats(batchSize))
+                .reduce(0L, (total, consumed) -> total + consumed)
+                .doOnNext(consumed -> {
+                    if (consumed > 0) {
+                        log.debug("Rolled up {} change-log entries.", consumed);
+                    }
+                });
+    }
+}
@@ -0,0 +1,216 @@
+package com.github.searcher.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * In-memory inverted index over stored repository names, owners and descriptions, ranked with BM25.
+ * <p>
+ * Field matches are weighted (name 3, owner 2, description 1) by counting a term once per unit
+ * of weight, which keeps scoring a single BM25 sum per term. Like {@link RepositoryReadModel},
+ * the index is loaded at startup and follows every committed upsert; until the load has finished
+ * it reports itself not ready.
+ * <p>
+ * The index holds every stored row plus its postings, so it is off unless
+ * {@code github.text-index.enabled} is set. Loading, indexing and scoring run on the persistence
+ * scheduler like the database calls they replace, never on an event-loop thread.
+ */
+@Component
+@Slf4j
+public class RepositoryTextIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int OWNER_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final boolean enabled;
+    private final GitHubRepositoryStore repositoryStore;
+    private final Scheduler persistenceScheduler;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private long totalLength;
+    private volatile boolean ready;
+
+    public RepositoryTextIndex(@Value("${github.text-index.enabled:false}") boolean enabled,
+                               GitHubRepositoryStore repositoryStore, Scheduler persistenceScheduler) {
+        this.enabled = enabled;
+        this.repositoryStore = repositoryStore;
+        this.persistenceScheduler = persistenceScheduler;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        repositoryStore.findAll(Specification.where(null), Sort.by("id"))
+                .subscribe(rows -> {
+                    lock.writeLock().lock();
+                    try {
+                        // Rows upserted while loading are newer than what the query returned.
+                        rows.stream().filter(row -> !documents.containsKey(row.getId())).forEach(this::index);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    ready = true;
+                    log.info("Indexed {} repositories for full-text search.", rows.size());
+                }, error -> log.error("Failed to load the full-text index; text queries keep using the database.", error));
+    }
+
+    @EventListener
+    public void onUpsert(RepositoriesUpsertedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<GitHubRepository> changed = event.getChanged();
+        if (changed.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            changed.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} repositories matching any query term, best BM25 score first
+     * (ties by stars, then id), optionally filtered by language and minimum stars.
+     */
+    public Mono<List<GitHubRepository>> search(String query, String language, Integer minStars, int limit) {
+        return Mono.fromCallable(() -> rank(query, language, minStars, limit)).subscribeOn(persistenceScheduler);
+    }
+
+    private List<GitHubRepository> rank(String query, String language, Integer minStars, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty() || documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents.size();
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Set<Long> matching = postings.get(term);
+                if (matching == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents.size() - matching.size() + 0.5) / (matching.size() + 0.5));
+                for (Long id : matching) {
+                    Document document = documents.get(id);
+                    int frequency = document.termFrequencies().get(term);
+                    double norm = K1 * (1 - B + B * document.length() / averageLength);
+                    scores.merge(id, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                }
+            }
+
+            String languageFilter = language == null || language.isEmpty() ? null : language.toLowerCase(Locale.ROOT);
+            List<ScoredRepository> hits = new ArrayList<>();
+            scores.forEach((id, score) -> {
+                GitHubRepository repository = documents.get(id).repository();
+                if (languageFilter != null && (repository.getLanguage() == null
+                        || !languageFilter.equals(repository.getLanguage().toLowerCase(Locale.ROOT)))) {
+                    return;
+                }
+                if (minStars != null && (repository.getStarsCount() == null || repository.getStarsCount() < minStars)) {
+                    return;
+                }
+                hits.add(new ScoredRepository(repository, score));
+            });
+            return hits.stream()
+                    .sorted(Comparator.comparingDouble(ScoredRepository::score).reversed()
+                            .thenComparing(hit -> hit.repository().getStarsCount(), Comparator.nullsLast(Comparator.reverseOrder()))
+                            .thenComparing(hit -> hit.repository().getId()))
+                    .limit(limit)
+                    .map(ScoredRepository::repository)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void index(GitHubRepository repository) {
+        remove(repository.getId());
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTerms(frequencies, repository.getName(), NAME_WEIGHT)
+                + addTerms(frequencies, repository.getOwnerName(), OWNER_WEIGHT)
+                + addTerms(frequencies, repository.getDescription(), DESCRIPTION_WEIGHT);
+        documents.put(repository.getId(), new Document(repository.copy(), frequencies, length));
+        totalLength += length;
+        frequencies.keySet().forEach(term -> postings.computeIfAbsent(term, key -> new HashSet<>()).add(repository.getId()));
+    }
+
+    private void remove(Long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (String term : previous.termFrequencies().keySet()) {
+            Set<Long> ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static int addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> tokens = tokenize(text);
+        tokens.forEach(token -> frequencies.merge(token, weight, Integer::sum));
+        return tokens.size() * weight;
+    }
+
+    private record Document(GitHubRepository repository, Map<String, Integer> termFrequencies, int length) {
+    }
+
+    private record ScoredRepository(GitHubRepository repository, double score) {
+    }
+}
@@ -0,0 +1,278 @@
+package com.github.searcher.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositoryChange;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory trending ranking of stored repositories by exponentially decayed star velocity.
+ * <p>
+ * Each time a repository is observed with a new star count, the gain since its previous
+ * observation is added to its score, and older gains decay with {@code half-life}. Scores are kept
+ * in the log domain relative to a fixed origin, {@code ln(score) + lambda * t}: all scores decay
+ * at the same rate, so this key only changes when the repository is observed again and the
+ * ranking never has to be rebuilt as time passes. Net star losses floor the score at zero, and
+ * repositories without a positive score are not ranked.
+ * <p>
+ * Rankings are concurrent skip lists per lower-case language plus one over all languages, so a
+ * top-N read walks N entries without locking; under concurrent updates it is weakly consistent.
+ * Observations come from committed upserts, searches and refreshes alike, and are ordered by
+ * when the row was checked, so replays and late events are idempotent.
+ * <p>
+ * State is only kept for repositories observed within the last {@value #WINDOW_HALF_LIVES}
+ * half-lives, by which time a gain has decayed to a sixteenth: every {@code sweep-interval} older
+ * state is evicted, and at startup only that window of the change log, which records the star
+ * count of every change, is replayed. Unranked repositories keep just their last star count, as
+ * the baseline for their next gain.
+ */
+@Component
+@Slf4j
+public class RepositoryTrending {
+
+    /** Value of the {@code sort} parameter that selects this ranking. */
+    public static final String SORT = "trending";
+
+    static final int WINDOW_HALF_LIVES = 4;
+
+    private static final int REPLAY_CHUNK_SIZE = 500;
+    private static final String ALL_LANGUAGES = "";
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::key).reversed()
+            .thenComparingLong(Entry::id);
+
+    private final boolean enabled;
+    /** Decay rate per second. */
+    private final double lambda;
+    private final Duration window;
+    private final Duration sweepInterval;
+    private final GitHubRepositoryStore repositoryStore;
+
+    private final Map<Long, State> states = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Entry>> rankings = new ConcurrentHashMap<>();
+
+    private Disposable sweep;
+
+    public RepositoryTrending(@Value("${github.trending.enabled:true}") boolean enabled,
+                              @Value("${github.trending.half-life:7d}") Duration halfLife,
+                              @Value("${github.trending.sweep-interval:1h}") Duration sweepInterval,
+                              GitHubRepositoryStore repositoryStore) {
+        this.enabled = enabled;
+        this.lambda = Math.log(2) / halfLife.toSeconds();
+        this.window = halfLife.multipliedBy(WINDOW_HALF_LIVES);
+        this.sweepInterval = sweepInterval;
+        this.repositoryStore = repositoryStore;
+    }
+
+    public static boolean isTrendingSort(String sort) {
+        return SORT.equalsIgnoreCase(sort);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        OffsetDateTime since = OffsetDateTime.now(ZoneOffset.UTC).minus(window);
+        repositoryStore.findChanges(0, since, REPLAY_CHUNK_SIZE)
+                .expand(changes -> changes.size() < REPLAY_CHUNK_SIZE ? Mono.empty()
+                        : repositoryStore.findChanges(changes.get(changes.size() - 1).getVersion(), since, REPLAY_CHUNK_SIZE))
+                .concatMapIterable(Function.identity())
+                .doOnNext(this::replay)
+                .count()
+                .subscribe(replayed -> log.info("Replayed {} changes since {} into the trending ranking; {} repositories ranked.",
+                                replayed, since, ranking(ALL_LANGUAGES).size()),
+                        error -> log.error("Failed to replay the change log into the trending ranking; it only reflects changes from now on.", error));
+        sweep = Flux.interval(sweepInterval, sweepInterval)
+                .onBackpressureDrop()
+                .subscribe(tick -> evict(OffsetDateTime.now(ZoneOffset.UTC)));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweep != null) {
+            sweep.dispose();
+        }
+    }
+
+    @EventListener
+    public void onUpsert(RepositoriesUpsertedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        for (GitHubRepository row : event.getChanged()) {
+            OffsetDateTime observedAt = row.getLastChecked() != null ? row.getLastChecked() : OffsetDateTime.now(ZoneOffset.UTC);
+            observe(row.copy(), row.getStarsCount(), observedAt);
+        }
+    }
+
+    /**
+     * Up to {@code limit} ranked repositories matching the (case-insensitive) language and minimum
+     * stars, highest score first, then by id.
+     */
+    public List<GitHubRepository> top(String language, Integer minStars, int limit) {
+        NavigableSet<Entry> ranking = rankings.get(language == null ? ALL_LANGUAGES : language.toLowerCase(Locale.ROOT));
+        if (!enabled || ranking == null) {
+            return List.of();
+        }
+        List<GitHubRepository> rows = new ArrayList<>(Math.min(limit, 64));
+        Set<Long> seen = new HashSet<>();
+        for (Entry entry : ranking) {
+            if (rows.size() == limit) {
+                break;
+            }
+            // A row being re-ranked can briefly be listed at both its old and new position.
+            if (!seen.add(entry.id())) {
+                continue;
+            }
+            if (minStars != null && (entry.row().getStarsCount() == null || entry.row().getStarsCount() < minStars)) {
+                continue;
+            }
+            rows.add(entry.row());
+        }
+        return rows;
+    }
+
+    /**
+     * Current score of a repository: decayed stars gained, in stars. Multiply by
+     * {@code ln 2 / half-life} for a velocity.
+     */
+    double score(long id, OffsetDateTime at) {
+        State state = states.get(id);
+        return state == null ? 0 : state.scoreAt(at.toEpochSecond(), lambda);
+    }
+
+    /**
+     * Forgets repositories last observed more than the window before {@code now}, as if they had
+     * never been seen. Returns how many were evicted.
+     */
+    int evict(OffsetDateTime now) {
+        long cutoff = now.minus(window).toEpochSecond();
+        int evicted = 0;
+        for (Map.Entry<Long, State> candidate : states.entrySet()) {
+            if (candidate.getValue().at() < cutoff && states.computeIfPresent(candidate.getKey(), (id, state) -> {
+                if (state.at() >= cutoff) {
+                    return state;
+                }
+                if (state.ranked()) {
+                    remove(new Entry(state.key(), id, state.row()), state.language());
+                }
+                return null;
+            }) == null) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} repositories not observed since {} from the trending state.", evicted, now.minus(window));
+        }
+        return evicted;
+    }
+
+    int size() {
+        return states.size();
+    }
+
+    private void replay(RepositoryChange change) {
+        if (change.getStarsCount() != null && change.getRepository() != null) {
+            observe(change.getRepository().copy(), change.getStarsCount(), change.getChangedAt());
+        }
+    }
+
+    private void observe(GitHubRepository row, Integer stars, OffsetDateTime observedAt) {
+        if (stars == null) {
+            return;
+        }
+        long at = observedAt.toEpochSecond();
+        String language = row.getLanguage() == null ? null : row.getLanguage().toLowerCase(Locale.ROOT);
+        states.compute(row.getId(), (id, previous) -> {
+            if (previous != null && at < previous.at()) {
+                return previous;
+            }
+            double score = previous == null ? 0 : Math.max(0, previous.scoreAt(at, lambda) + stars - previous.stars());
+            // Unranked rows are never returned, so they only keep what the next gain is measured against.
+            State next = score > 0 ? new State(stars, at, Math.log(score) + lambda * at, language, row)
+                    : new State(stars, at, Double.NEGATIVE_INFINITY, null, null);
+            rerank(previous, next, id);
+            return next;
+        });
+    }
+
+    /**
+     * Moves the row to its new position. The new entry is added before the old one is removed, so
+     * concurrent readers do not lose the row; an entry at the same position is swapped in place.
+     */
+    private void rerank(State previous, State next, long id) {
+        Entry removed = previous != null && previous.ranked() ? new Entry(previous.key(), id, previous.row()) : null;
+        Entry added = next.ranked() ? new Entry(next.key(), id, next.row()) : null;
+        if (removed != null && added != null && ORDER.compare(removed, added) == 0) {
+            remove(removed, previous.language());
+            add(added, next.language());
+            return;
+        }
+        if (added != null) {
+            add(added, next.language());
+        }
+        if (removed != null) {
+            remove(removed, previous.language());
+        }
+    }
+
+    private void add(Entry entry, String language) {
+        ranking(ALL_LANGUAGES).add(entry);
+        if (language != null) {
+            ranking(language).add(entry);
+        }
+    }
+
+    private void remove(Entry entry, String language) {
+        ranking(ALL_LANGUAGES).remove(entry);
+        if (language != null) {
+            ranking(language).remove(entry);
+        }
+    }
+
+    private NavigableSet<Entry> ranking(String language) {
+        return rankings.computeIfAbsent(language, key -> new ConcurrentSkipListSet<>(ORDER));
+    }
+
+    /**
+     * @param key {@code ln(score) + lambda * at}, or negative infinity if the score is zero
+     */
+    private record State(int stars, long at, double key, String language, GitHubRepository row) {
+
+        boolean ranked() {
+            return key != Double.NEGATIVE_INFINITY;
+        }
+
+        double scoreAt(long time, double lambda) {
+            return ranked() ? Math.exp(key - lambda * time) : 0;
+        }
+    }
+
+    private record Entry(double key, long id, GitHubRepository row) {
+    }
+}
@@ -0,0 +1,271 @@
+package com.github.searcher.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.searcher.model.GitHubRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.retry.Retry;
+
+/**
+ * Optional write-behind queue for search results, so a search can answer before its rows are saved.
+ * <p>
+ * Submitted rows are copied and held by id, so the caller's instances are never written or
+ * changed behind its back, and a later version of a repository replaces an earlier one that
+ * has not been written yet. One flush at a time takes up to {@code batch-size} rows and upserts
+ * them through {@link GitHubRepositoryStore}; a flush starts once {@code batch-size} rows are
+ * pending or every {@code flush-interval}, whichever comes first. Failed flushes are retried with
+ * backoff and then dropped (counted as {@code github.persistence.write-behind.dropped}).
+ * <p>
+ * The queue holds at most {@code capacity} rows. When it is full, a submission waits for a flush
+ * to make room, failing with 503 after {@code offer-timeout}, which pushes back on callers instead
+ * of growing without bound. Whether a waiting submission is admitted or times out is decided under
+ * the queue's lock, so a submission that fails with 503 is never written. On shutdown every waiting submission is accepted and the queue is
+ * drained before the store goes away.
+ */
+@Component
+@Slf4j
+public class RepositoryWriteBehindBuffer {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final Duration drainTimeout;
+    private final GitHubRepositoryStore repositoryStore;
+    private final GitHubMetrics metrics;
+    private final Counter coalescedCounter;
+    private final Counter droppedCounter;
+
+    private final Map<Long, GitHubRepository> pending = new LinkedHashMap<>();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private boolean flushing;
+    private boolean closed;
+    private Disposable ticker;
+
+    @Autowired
+    public RepositoryWriteBehindBuffer(@Value("${github.persistence.write-behind.enabled:false}") boolean enabled,
+                                       @Value("${github.persistence.write-behind.capacity:10000}") int capacity,
+                                       @Value("${github.persistence.write-behind.batch-size:500}") int batchSize,
+                                       @Value("${github.persistence.write-behind.flush-interval:1s}") Duration flushInterval,
+                                       @Value("${github.persistence.write-behind.offer-timeout:5s}") Duration offerTimeout,
+                                       @Value("${github.persistence.write-behind.drain-timeout:30s}") Duration drainTimeout,
+                                       GitHubRepositoryStore repositoryStore, GitHubMetrics metrics, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.drainTimeout = drainTimeout;
+        this.repositoryStore = repositoryStore;
+        this.metrics = metrics;
+
+        Gauge.builder("github.persistence.write-behind.pending", this, RepositoryWriteBehindBuffer::pendingCount)
+                .description("Repositories waiting in the write-behind queue")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("github.persistence.write-behind.coalesced")
+                .description("Queued repositories replaced by a newer version before being written")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("github.persistence.write-behind.dropped")
+                .description("Repositories dropped after a write-behind flush kept failing")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Writing search results behind: batches of {} every {}, queue capacity {}.", batchSize, flushInterval, capacity);
+        ticker = Flux.interval(flushInterval, flushInterval)
+                .subscribe(tick -> flush());
+    }
+
+    /**
+     * Queues the rows for writing. Completes as soon as they are queued, or once a flush has made
+     * room if the queue is full.
+     */
+    public Mono<Void> submit(Collection<GitHubRepository> repositories) {
+        if (repositories.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (closed) {
+                    return repositoryStore.upsertAll(repositories).then();
+                }
+                if (waiters.isEmpty() && pending.size() < capacity) {
+                    enqueue(repositories);
+                    if (pending.size() >= batchSize) {
+                        flush();
+                    }
+                    return Mono.empty();
+                }
+            }
+            return Mono.<Void>create(sink -> {
+                Waiter waiter = new Waiter(repositories, sink);
+                synchronized (this) {
+                    // A flush may have made room since the check above.
+                    if (waiters.isEmpty() && pending.size() < capacity) {
+                        enqueue(repositories);
+                        sink.success();
+                        return;
+                    }
+                    waiters.add(waiter);
+                }
+                Disposable timer = Mono.delay(offerTimeout).subscribe(tick -> expire(waiter));
+                sink.onDispose(() -> {
+                    timer.dispose();
+                    synchronized (this) {
+                        waiters.remove(waiter);
+                    }
+                });
+            });
+        });
+    }
+
+    /**
+     * Fails a submission still waiting after {@code offer-timeout}. A flush that admitted it first
+     * has already taken it off the waiters, so it completes instead.
+     */
+    private void expire(Waiter waiter) {
+        boolean expired;
+        synchronized (this) {
+            expired = waiters.remove(waiter);
+        }
+        if (expired) {
+            waiter.sink().error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Persistence queue is full. Please try again later."));
+        }
+    }
+
+    /**
+     * Starts writing the oldest pending rows unless a flush is already running.
+     */
+    synchronized void flush() {
+        if (flushing || pending.isEmpty()) {
+            return;
+        }
+        List<GitHubRepository> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<GitHubRepository> iterator = pending.values().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        flushing = true;
+        repositoryStore.upsertAll(batch)
+                .doOnNext(result -> metrics.recordUpsert(batch.size(), result))
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(200)))
+                .onErrorResume(error -> {
+                    droppedCounter.increment(batch.size());
+                    log.error("Dropping {} repositories after repeated write-behind failures.", batch.size(), error);
+                    return Mono.empty();
+                })
+                .doFinally(signal -> flushed())
+                .subscribe();
+    }
+
+    private void flushed() {
+        List<Waiter> admitted = new ArrayList<>();
+        synchronized (this) {
+            flushing = false;
+            while (!waiters.isEmpty() && pending.size() < capacity) {
+                Waiter waiter = waiters.poll();
+                enqueue(waiter.repositories());
+                admitted.add(waiter);
+            }
+            if (pending.size() >= batchSize || (closed && !pending.isEmpty())) {
+                flush();
+            }
+            notifyAll();
+        }
+        admitted.forEach(waiter -> waiter.sink().success());
+    }
+
+    /**
+     * Accepts everything still waiting and writes out the queue, giving up after {@code drain-timeout}.
+     */
+    @PreDestroy
+    public void drain() {
+        if (!enabled) {
+            return;
+        }
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        List<Waiter> admitted;
+        synchronized (this) {
+            closed = true;
+            admitted = new ArrayList<>(waiters);
+            waiters.clear();
+            admitted.forEach(waiter -> enqueue(waiter.repositories()));
+        }
+        admitted.forEach(waiter -> waiter.sink().success());
+
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        synchronized (this) {
+            log.info("Draining {} queued repositories.", pending.size());
+            while (true) {
+                flush();
+                if (!flushing && pending.isEmpty()) {
+                    return;
+                }
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    log.warn("Gave up draining the write-behind queue with {} repositories unwritten.", pending.size());
+                    return;
+                }
+                try {
+                    wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Interrupted while draining the write-behind queue; {} repositories unwritten.", pending.size());
+                    return;
+                }
+            }
+        }
+    }
+
+    synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private void enqueue(Collection<GitHubRepository> repositories) {
+        for (GitHubRepository repository : repositories) {
+            if (pending.put(repository.getId(), repository.copy()) != null) {
+                coalescedCounter.increment();
+            }
+        }
+    }
+
+    private record Waiter(Collection<GitHubRepository> repositories, MonoSink<Void> sink) {
+    }
+}
@@ -0,0 +1,13 @@
+-- Schema previously generated by Hibernate. IF NOT EXISTS keeps this a no-op on databases
+-- that already have the table (they are baselined at version 1 anyway).
+CREATE TABLE IF NOT EXISTS github_repositories (
+    id           BIGINT                   NOT NULL,
+    name         VARCHAR(255)             NOT NULL,
+    description  TEXT,
+    owner_name   VARCHAR(255)             NOT NULL,
+    language     VARCHAR(255),
+    stars_count  INTEGER,
+    forks_count  INTEGER,
+    last_updated TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
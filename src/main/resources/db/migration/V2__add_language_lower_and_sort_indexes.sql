@@ -0,0 +1,16 @@
+-- Lower-cased language, maintained by the entity on every write, so the language filter is a
+-- plain equality that can lead a composite index. Portable across PostgreSQL and H2, unlike an
+-- expression index or a generated column.
+ALTER TABLE github_repositories ADD COLUMN IF NOT EXISTS language_lower VARCHAR(255);
+
+UPDATE github_repositories SET language_lower = LOWER(language) WHERE language IS NOT NULL;
+
+-- language filter + each sort key; id breaks ties in the same order as the keyset cursor.
+CREATE INDEX IF NOT EXISTS idx_repositories_language_stars ON github_repositories (language_lower, stars_count DESC, id);
+CREATE INDEX IF NOT EXISTS idx_repositories_language_forks ON github_repositories (language_lower, forks_count DESC, id);
+CREATE INDEX IF NOT EXISTS idx_repositories_language_updated ON github_repositories (language_lower, last_updated DESC, id);
+
+-- Unfiltered listings sorted by each key.
+CREATE INDEX IF NOT EXISTS idx_repositories_stars ON github_repositories (stars_count DESC, id);
+CREATE INDEX IF NOT EXISTS idx_repositories_forks ON github_repositories (forks_count DESC, id);
+CREATE INDEX IF NOT EXISTS idx_repositories_updated ON github_repositories (last_updated DESC, id);
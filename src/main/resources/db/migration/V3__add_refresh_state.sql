@@ -0,0 +1,5 @@
+-- Background refresh bookkeeping: the ETag of the last /repositories/{id} response, for
+-- conditional requests, and when the row was last confirmed against GitHub. NULL means never.
+-- Stale rows are picked in stars order, which idx_repositories_stars already serves.
+ALTER TABLE github_repositories ADD COLUMN IF NOT EXISTS etag VARCHAR(255);
+ALTER TABLE github_repositories ADD COLUMN IF NOT EXISTS last_checked TIMESTAMP(6) WITH TIME ZONE;
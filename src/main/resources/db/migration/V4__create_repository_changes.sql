@@ -0,0 +1,12 @@
+-- Append-only log of inserts and updates for the change feed, one row per changed repository
+-- per upsert. Versions come from a sequence handed out in blocks of 50 (the entity's
+-- allocationSize), so ordering by version is ordering by when the change was recorded.
+CREATE SEQUENCE IF NOT EXISTS repository_changes_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS repository_changes (
+    version       BIGINT                   NOT NULL,
+    repository_id BIGINT                   NOT NULL,
+    change_type   VARCHAR(16)              NOT NULL,
+    changed_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (version)
+);
@@ -0,0 +1,17 @@
+-- Star and fork counts as of each logged change, so history survives updateFrom overwriting
+-- the repository row. NULL for changes logged before this migration.
+ALTER TABLE repository_changes ADD COLUMN IF NOT EXISTS stars_count INTEGER;
+ALTER TABLE repository_changes ADD COLUMN IF NOT EXISTS forks_count INTEGER;
+
+-- Daily rollup of the change log: the last observed counts per repository and UTC day, only for
+-- days on which something changed. last_version is the newest change rolled into the row; the
+-- maximum over the table is where the next rollup continues.
+CREATE TABLE IF NOT EXISTS repository_daily_stats (
+    repository_id BIGINT  NOT NULL,
+    stats_day     DATE    NOT NULL,
+    stars_count   INTEGER NOT NULL,
+    forks_count   INTEGER,
+    last_version  BIGINT  NOT NULL,
+    PRIMARY KEY (repository_id, stats_day)
+);
+CREATE INDEX IF NOT EXISTS idx_repository_daily_stats_last_version ON repository_daily_stats (last_version);
@@ -0,0 +1,17 @@
+-- Keyset pages order rows without a count or timestamp last (ORDER BY <key> DESC NULLS LAST).
+-- PostgreSQL puts nulls first in a plain DESC index, so it could not read the V2 indexes in that
+-- order; recreate them with the same null placement as the queries.
+DROP INDEX IF EXISTS idx_repositories_language_stars;
+DROP INDEX IF EXISTS idx_repositories_language_forks;
+DROP INDEX IF EXISTS idx_repositories_language_updated;
+DROP INDEX IF EXISTS idx_repositories_stars;
+DROP INDEX IF EXISTS idx_repositories_forks;
+DROP INDEX IF EXISTS idx_repositories_updated;
+
+CREATE INDEX idx_repositories_language_stars ON github_repositories (language_lower, stars_count DESC NULLS LAST, id);
+CREATE INDEX idx_repositories_language_forks ON github_repositories (language_lower, forks_count DESC NULLS LAST, id);
+CREATE INDEX idx_repositories_language_updated ON github_repositories (language_lower, last_updated DESC NULLS LAST, id);
+
+CREATE INDEX idx_repositories_stars ON github_repositories (stars_count DESC NULLS LAST, id);
+CREATE INDEX idx_repositories_forks ON github_repositories (forks_count DESC NULLS LAST, id);
+CREATE INDEX idx_repositories_updated ON github_repositories (last_updated DESC NULLS LAST, id);
@@ -0,0 +1,4 @@
+-- Background refresh backoff: a row whose last check failed (403, 451, undecodable response, ...)
+-- is not picked again before retry_after, so a few rows that keep failing cannot fill every batch.
+-- NULL means no failure pending.
+ALTER TABLE github_repositories ADD COLUMN IF NOT EXISTS retry_after TIMESTAMP(6) WITH TIME ZONE;
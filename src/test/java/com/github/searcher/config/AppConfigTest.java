@@ -0,0 +1,113 @@
+package com.github.searcher.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.searcher.service.GitHubMetrics;
+import com.github.searcher.service.GitHubRateLimitGovernor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+class AppConfigTest {
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+    private final AtomicReference<String> acceptEncoding = new AtomicReference<>();
+
+    private String createLargeSearchResponse() {
+        StringBuilder body = new StringBuilder("{\"total_count\":100,\"items\":[");
+        String padding = "x".repeat(5000);
+        for (int id = 1; id <= 100; id++) {
+            if (id > 1) {
+                body.append(',');
+            }
+            body.append("{\"id\":").append(id).append(",\"description\":\"").append(padding).append("\"}");
+        }
+        return body.append("]}").toString();
+    }
+
+    @BeforeEach
+    void setUp() {
+        String searchResponse = createLargeSearchResponse();
+        server = HttpServer.create()
+                .port(0)
+                .compress(true)
+                .route(routes -> routes
+                        .get("/search/repositories", (request, response) -> {
+                            acceptEncoding.set(request.requestHeaders().get(HttpHeaders.ACCEPT_ENCODING));
+                            return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .sendString(Mono.just(searchResponse));
+                        })
+                        .get("/slow", (request, response) -> Mono.delay(Duration.ofSeconds(2))
+                                .then(response.sendString(Mono.just("{}")).then())))
+                .bindNow();
+
+        AppConfig appConfig = new AppConfig();
+        ReflectionTestUtils.setField(appConfig, "githubApiBaseUrl", "http://localhost:" + server.port());
+        ReflectionTestUtils.setField(appConfig, "maxConnections", 2);
+        ReflectionTestUtils.setField(appConfig, "pendingAcquireMaxCount", 10);
+        ReflectionTestUtils.setField(appConfig, "pendingAcquireTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(appConfig, "maxIdleTime", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(appConfig, "maxLifeTime", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(appConfig, "evictInBackground", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(appConfig, "connectTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(appConfig, "readTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(appConfig, "responseTimeout", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(appConfig, "http2Enabled", true);
+        ReflectionTestUtils.setField(appConfig, "compressionEnabled", true);
+        ReflectionTestUtils.setField(appConfig, "maxInMemorySize", DataSize.ofMegabytes(4));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GitHubRateLimitGovernor governor = new GitHubRateLimitGovernor(30, Duration.ofMinutes(1), Duration.ofMinutes(2), meterRegistry);
+        connectionProvider = appConfig.gitHubConnectionProvider();
+        webClient = appConfig.webClient(governor, new GitHubMetrics(meterRegistry), connectionProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+        connectionProvider.dispose();
+    }
+
+    @Test
+    @DisplayName("Should request gzip and decode a 100-item page larger than the default 256KB codec limit")
+    void webClient_decodesLargeCompressedPage() {
+        JsonNode body = webClient.get().uri("/search/repositories?q=test")
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(100, body.get("items").size());
+        assertEquals("gzip", acceptEncoding.get());
+    }
+
+    @Test
+    @DisplayName("Should fail the call once the response timeout elapses")
+    void webClient_appliesResponseTimeout() {
+        StepVerifier.create(webClient.get().uri("/slow").retrieve().bodyToMono(String.class))
+                .expectErrorMatches(error -> error instanceof WebClientRequestException
+                        && error.getCause() instanceof ReadTimeoutException)
+                .verify(Duration.ofSeconds(5));
+    }
+}
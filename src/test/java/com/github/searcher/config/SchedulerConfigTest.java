@@ -0,0 +1,54 @@
+package com.github.searcher.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.searcher.config.SchedulerConfig.PersistenceSchedulerMode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+class SchedulerConfigTest {
+
+    private Scheduler scheduler(PersistenceSchedulerMode mode, SimpleMeterRegistry meterRegistry) {
+        SchedulerConfig config = new SchedulerConfig();
+        ReflectionTestUtils.setField(config, "mode", mode);
+        return config.persistenceScheduler(meterRegistry);
+    }
+
+    private boolean runsOnVirtualThread(Scheduler scheduler) {
+        return Mono.fromCallable(() -> Thread.currentThread().isVirtual())
+                .subscribeOn(scheduler)
+                .block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should run repository calls on virtual threads in virtual mode")
+    void persistenceScheduler_virtual() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Scheduler scheduler = scheduler(PersistenceSchedulerMode.VIRTUAL, meterRegistry);
+        try {
+            assertTrue(runsOnVirtualThread(scheduler));
+            assertNotNull(meterRegistry.find("github.persistence.scheduler.tasks.completed").tag("mode", "virtual").timer());
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run repository calls on platform threads in bounded-elastic mode")
+    void persistenceScheduler_boundedElastic() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        assertFalse(runsOnVirtualThread(scheduler(PersistenceSchedulerMode.BOUNDED_ELASTIC, meterRegistry)));
+        assertNotNull(meterRegistry.find("github.persistence.scheduler.tasks.completed").tag("mode", "bounded-elastic").timer());
+    }
+}
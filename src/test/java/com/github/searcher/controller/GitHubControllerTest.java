@@ -1,9 +1,14 @@
 package com.github.searcher.controller;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
@@ -15,19 +20,34 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.searcher.config.CodecConfig;
+import com.github.searcher.dto.BatchSearchRequest;
+import com.github.searcher.dto.BatchSearchResult;
+import com.github.searcher.dto.RepositoryGrowth;
+import com.github.searcher.dto.RepositoryPage;
 import com.github.searcher.dto.SearchRequest;
 import com.github.searcher.handler.GitHubApiException;
 import com.github.searcher.handler.GitHubRateLimitExceededException;
 import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositoryChange;
 import com.github.searcher.service.GitHubService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
-@WebFluxTest(GitHubController.class)
+@WebFluxTest(controllers = GitHubController.class, properties = "github.repositories.cache.enabled=false")
+@Import({RepositoryJsonWriter.class, RepositoryListCache.class, SimpleMeterRegistry.class})
 class GitHubControllerTest {
 
     @Autowired
@@ -111,6 +131,80 @@ class GitHubControllerTest {
                 .jsonPath("$.message").isEqualTo("GitHub API client error: Missing 'q' parameter.");
     }
 
+    @Test
+    @DisplayName("POST /api/github/search/stream - Should stream saved repositories as NDJSON")
+    void streamGitHubRepositories_ndjson() {
+        SearchRequest searchRequest = new SearchRequest("spring boot", "Java", "stars", 200);
+        GitHubRepository repo1 = createTestRepository(1L, "repo-one", "Desc", "ownerA", "Java", 500, 50, "2024-01-01T12:00:00Z");
+        GitHubRepository repo2 = createTestRepository(2L, "repo-two", "Desc", "ownerB", "Java", 300, 30, "2024-01-02T12:00:00Z");
+
+        when(gitHubService.streamAndSaveRepositories(any(SearchRequest.class)))
+                .thenReturn(Flux.just(repo1, repo2));
+
+        Flux<GitHubRepository> body = webTestClient.post().uri("/api/github/search/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(searchRequest)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(GitHubRepository.class)
+                .getResponseBody();
+
+        StepVerifier.create(body)
+                .expectNextMatches(repo -> repo.getName().equals("repo-one"))
+                .expectNextMatches(repo -> repo.getName().equals("repo-two"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("POST /api/github/search/stream - Should return 400 Bad Request on validation error (maxResults above cap)")
+    void streamGitHubRepositories_validationError_maxResults() {
+        SearchRequest searchRequest = new SearchRequest("spring boot", null, null, 5000);
+
+        webTestClient.post().uri("/api/github/search/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(searchRequest)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("POST /api/github/search/batch - Should stream one result per search as NDJSON")
+    void searchGitHubRepositoriesBatch_ndjson() {
+        SearchRequest first = new SearchRequest("spring boot", "Java", null);
+        SearchRequest second = new SearchRequest("reactor", null, null);
+        GitHubRepository repo1 = createTestRepository(1L, "repo-one", "Desc", "ownerA", "Java", 10, 1, "2024-01-01T12:00:00Z");
+
+        when(gitHubService.searchAndSaveBatch(any())).thenReturn(Flux.just(
+                new BatchSearchResult(0, first, List.of(repo1), null),
+                new BatchSearchResult(1, second, Collections.emptyList(), "GitHub API rate limit exceeded. Please try again later.")));
+
+        Flux<BatchSearchResult> body = webTestClient.post().uri("/api/github/search/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(new BatchSearchRequest(List.of(first, second)))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BatchSearchResult.class)
+                .getResponseBody();
+
+        StepVerifier.create(body)
+                .expectNextMatches(result -> result.getIndex() == 0 && result.getRepositories().get(0).getId() == 1L)
+                .expectNextMatches(result -> result.getIndex() == 1 && result.getError() != null)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("POST /api/github/search/batch - Should return 400 Bad Request when a search in the batch is invalid")
+    void searchGitHubRepositoriesBatch_validationError() {
+        webTestClient.post().uri("/api/github/search/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new BatchSearchRequest(List.of(new SearchRequest("", null, null))))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     @DisplayName("GET /api/github/repositories - Should return 200 OK and all stored repositories")
     void getStoredRepositories_success() throws Exception {
@@ -149,4 +243,164 @@ class GitHubControllerTest {
                 .jsonPath("$.repositories").isArray()
                 .jsonPath("$.repositories").value(hasSize(0));
     }
+
+    @Test
+    @DisplayName("GET /api/github/repositories?limit - Should return a page with a continuation cursor")
+    void getStoredRepositoriesPage_success() throws Exception {
+        GitHubRepository repo1 = createTestRepository(1L, "repo-java", "Desc Java", "ownerA", "Java", 500, 50, "2024-01-01T12:00:00Z");
+
+        when(gitHubService.getStoredRepositoriesPage(any(), any(), any(), any(), eq(1)))
+                .thenReturn(Mono.just(new RepositoryPage(Collections.singletonList(repo1), "next-token")));
+
+        webTestClient.get().uri(uriBuilder -> uriBuilder.path("/api/github/repositories")
+                        .queryParam("language", "Java")
+                        .queryParam("limit", "1")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.repositories").value(hasSize(1))
+                .jsonPath("$.repositories[0].name").isEqualTo("repo-java")
+                .jsonPath("$.nextCursor").isEqualTo("next-token");
+    }
+
+    @Test
+    @DisplayName("GET /api/github/repositories?q - Should return stored repositories ranked by relevance")
+    void searchStoredRepositories_success() {
+        GitHubRepository repo1 = createTestRepository(1L, "reactive-cache", "Desc Java", "ownerA", "Java", 500, 50, "2024-01-01T12:00:00Z");
+
+        when(gitHubService.searchStoredRepositories(eq("reactive cache"), eq("Java"), any(), eq(10)))
+                .thenReturn(Mono.just(Collections.singletonList(repo1)));
+
+        webTestClient.get().uri(uriBuilder -> uriBuilder.path("/api/github/repositories")
+                        .queryParam("q", "reactive cache")
+                        .queryParam("language", "Java")
+                        .queryParam("limit", "10")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$").value(hasSize(1))
+                .jsonPath("$[0].name").isEqualTo("reactive-cache");
+    }
+
+    @Test
+    @DisplayName("GET /api/github/repositories?limit - Should reject an NDJSON page request")
+    void streamStoredRepositories_rejectsLimit() {
+        webTestClient.get().uri("/api/github/repositories?limit=10")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(gitHubService, never()).getStoredRepositoriesPage(any(), any(), any(), any(), any());
+        verify(gitHubService, never()).streamStoredRepositories(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/github/repositories - Should stream stored repositories as NDJSON")
+    void streamStoredRepositories_ndjson() {
+        GitHubRepository repo1 = createTestRepository(1L, "repo-java", "Desc Java", "ownerA", "Java", 500, 50, "2024-01-01T12:00:00Z");
+        GitHubRepository repo2 = createTestRepository(2L, "repo-python", "Desc Python", "ownerB", "Python", 300, 30, "2024-01-02T12:00:00Z");
+
+        when(gitHubService.streamStoredRepositories(any(), any(), any()))
+                .thenReturn(Flux.just(repo1, repo2));
+
+        Flux<GitHubRepository> body = webTestClient.get().uri("/api/github/repositories")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(GitHubRepository.class)
+                .getResponseBody();
+
+        StepVerifier.create(body)
+                .expectNextMatches(repo -> repo.getId() == 1L)
+                .expectNextMatches(repo -> repo.getId() == 2L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("GET /api/github/repositories - Should answer in CBOR with epoch-millisecond dates when asked for it")
+    void getStoredRepositories_cbor() throws Exception {
+        GitHubRepository repo1 = createTestRepository(1L, "repo-java", "Desc Java", "ownerA", "Java", 500, 50, "2024-01-01T12:00:00Z");
+
+        when(gitHubService.getStoredRepositories(any(), any(), any()))
+                .thenReturn(Mono.just(Collections.singletonList(repo1)));
+
+        byte[] body = webTestClient.get().uri("/api/github/repositories?language=Java")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        ObjectMapper cborMapper = CodecConfig.binaryMapper(Jackson2ObjectMapperBuilder.cbor());
+        assertEquals(List.of(repo1), cborMapper.readValue(body, new TypeReference<List<GitHubRepository>>() { }));
+        assertEquals(1704110400000L, cborMapper.readTree(body).get(0).get("lastUpdated").asLong());
+    }
+
+    @Test
+    @DisplayName("POST /api/github/search - Should answer in Smile when asked for it")
+    void searchGitHubRepositories_smile() throws Exception {
+        GitHubRepository repo = createTestRepository(123L, "spring-boot-starter", "Starter for Spring Boot", "spring-projects", "Java", 1000, 200, "2024-01-01T12:00:00Z");
+
+        when(gitHubService.searchAndSaveRepositories(any(SearchRequest.class)))
+                .thenReturn(Mono.just(Collections.singletonList(repo)));
+
+        byte[] body = webTestClient.post().uri("/api/github/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.parseMediaType(CodecConfig.APPLICATION_SMILE_VALUE))
+                .bodyValue(new SearchRequest("spring boot", "Java", "stars"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        JsonNode response = CodecConfig.binaryMapper(Jackson2ObjectMapperBuilder.smile()).readTree(body);
+        assertEquals("Repositories fetched and saved successfully", response.get("message").asText());
+        assertEquals("spring-boot-starter", response.get("repositories").get(0).get("name").asText());
+    }
+
+    @Test
+    @DisplayName("GET /api/github/changes - Should stream changes after the given version as NDJSON")
+    void streamChanges_ndjson() {
+        GitHubRepository repo1 = createTestRepository(1L, "repo-java", "Desc Java", "ownerA", "Java", 500, 50, "2024-01-01T12:00:00Z");
+        RepositoryChange change = new RepositoryChange(repo1, RepositoryChange.Type.UPDATE, OffsetDateTime.parse("2024-06-01T00:00:00Z"));
+        change.setVersion(52L);
+        change.setRepository(repo1);
+
+        when(gitHubService.streamChanges(51L)).thenReturn(Flux.just(change));
+
+        Flux<RepositoryChange> body = webTestClient.get().uri("/api/github/changes?since=51")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(RepositoryChange.class)
+                .getResponseBody();
+
+        StepVerifier.create(body)
+                .expectNextMatches(received -> received.getVersion() == 52L
+                        && received.getType() == RepositoryChange.Type.UPDATE
+                        && received.getRepository().getStarsCount() == 500)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("GET /api/github/repositories/growth - Should return repositories with their growth")
+    void getFastestGrowingRepositories() {
+        GitHubRepository repo1 = createTestRepository(1L, "repo-java", "Desc Java", "ownerA", "Java", 500, 50, "2024-01-01T12:00:00Z");
+        when(gitHubService.getFastestGrowing("java", 7, null))
+                .thenReturn(Mono.just(List.of(new RepositoryGrowth(repo1, 120, 4, LocalDate.parse("2024-05-25")))));
+
+        webTestClient.get().uri("/api/github/repositories/growth?language=java&days=7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$").value(hasSize(1))
+                .jsonPath("$[0].repository.name").isEqualTo("repo-java")
+                .jsonPath("$[0].starsGrowth").isEqualTo(120)
+                .jsonPath("$[0].since").isEqualTo("2024-05-25");
+    }
 }
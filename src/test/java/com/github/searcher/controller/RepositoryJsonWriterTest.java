@@ -0,0 +1,74 @@
+package com.github.searcher.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.searcher.dto.RepositoryPage;
+import com.github.searcher.model.GitHubRepository;
+
+class RepositoryJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final RepositoryJsonWriter writer = new RepositoryJsonWriter(objectMapper, true, 100);
+
+    private GitHubRepository repository(long id, int stars, String description) {
+        return new GitHubRepository(id, "repo" + id, description, "owner", "Java", stars, 1, OffsetDateTime.parse("2024-01-01T12:00:00Z"));
+    }
+
+    private JsonNode read(DataBuffer buffer) throws Exception {
+        return objectMapper.readTree(buffer.toString(StandardCharsets.UTF_8));
+    }
+
+    /** Round-trips through text so numbers are parsed into the same node types as {@link #read}. */
+    private JsonNode jackson(Object value) throws Exception {
+        return objectMapper.readTree(objectMapper.writeValueAsString(value));
+    }
+
+    @Test
+    @DisplayName("Should write the same JSON Jackson writes for lists, search results and pages")
+    void write_matchesJackson() throws Exception {
+        List<GitHubRepository> repositories = List.of(repository(1, 10, "Quotes \" and ünïcode"), repository(2, 20, null));
+        Map<String, Object> searchResult = new LinkedHashMap<>();
+        searchResult.put("message", "Repositories fetched and saved successfully");
+        searchResult.put("repositories", repositories);
+
+        assertEquals(jackson(repositories),
+                read(writer.writeList(repositories, DefaultDataBufferFactory.sharedInstance)));
+        assertEquals(jackson(searchResult),
+                read(writer.writeSearchResult(repositories, DefaultDataBufferFactory.sharedInstance)));
+        assertEquals(jackson(new RepositoryPage(repositories, "next\"token")),
+                read(writer.writePage(new RepositoryPage(repositories, "next\"token"), DefaultDataBufferFactory.sharedInstance)));
+        assertEquals(jackson(new RepositoryPage(List.of(), null)),
+                read(writer.writePage(new RepositoryPage(List.of(), null), DefaultDataBufferFactory.sharedInstance)));
+    }
+
+    @Test
+    @DisplayName("Should reuse a cached fragment until the repository changes")
+    void write_refreshesChangedRepositories() throws Exception {
+        GitHubRepository repository = repository(1, 10, "first");
+        writer.writeList(List.of(repository), DefaultDataBufferFactory.sharedInstance);
+        assertEquals(1, writer.cachedFragments());
+
+        repository.setStarsCount(11);
+        JsonNode written = read(writer.writeList(List.of(repository), DefaultDataBufferFactory.sharedInstance));
+
+        assertEquals(11, written.get(0).get("starsCount").asInt());
+        assertEquals(1, writer.cachedFragments());
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.searcher.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+import com.github.searcher.repository.UpsertResult;
+import com.github.searcher.service.ReadModelUpdatedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class RepositoryListCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    /** Runs while a listing is being serialized, i.e. after its query and before it is stored. */
+    private Runnable onWrite = () -> { };
+    private final RepositoryJsonWriter jsonWriter = new RepositoryJsonWriter(new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS), true, 100) {
+        @Override
+        public byte[] writeListBytes(List<GitHubRepository> repositories) {
+            onWrite.run();
+            return super.writeListBytes(repositories);
+        }
+    };
+    private final RepositoryListCache cache = new RepositoryListCache(true, DataSize.ofMegabytes(1), jsonWriter, meterRegistry);
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private GitHubRepository repository(long id, String language, int stars) {
+        return new GitHubRepository(id, "repo" + id, null, "owner", language, stars, 1, OffsetDateTime.parse("2024-01-01T12:00:00Z"));
+    }
+
+    private Mono<List<GitHubRepository>> query(GitHubRepository... rows) {
+        return Mono.fromSupplier(() -> {
+            queries.incrementAndGet();
+            return List.of(rows);
+        });
+    }
+
+    private String get(String language, Integer minStars, String sort, GitHubRepository... rows) {
+        return new String(cache.get(language, minStars, sort, query(rows)).block(), StandardCharsets.UTF_8);
+    }
+
+    private void upsert(GitHubRepository... updated) {
+        cache.onUpsert(new RepositoriesUpsertedEvent(new UpsertResult(List.of(updated),
+                Collections.emptyList(), List.of(updated), Collections.emptyList())));
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", RepositoryListCache.NAME).tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated listings from the cache under a normalized key and count hits and misses")
+    void get_cachesListings() {
+        GitHubRepository java = repository(1, "Java", 10);
+
+        String first = get("Java", 5, "stars", java);
+        String second = get("JAVA", 5, null, java);
+
+        assertEquals(first, second);
+        assertEquals(jsonWriter.writeListBytes(List.of(java)).length, second.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(1, queries.get());
+        assertEquals(1, gets("hit"));
+        assertEquals(1, gets("miss"));
+    }
+
+    @Test
+    @DisplayName("Should only drop listings a committed upsert can change")
+    void onUpsert_invalidatesAffectedListings() {
+        get(null, null, "stars", repository(1, "Java", 10), repository(2, "Go", 20));
+        get("java", null, "stars", repository(1, "Java", 10));
+        get("go", null, "stars", repository(2, "Go", 20));
+        get("rust", null, "stars");
+
+        upsert(repository(1, "Kotlin", 10));
+
+        assertEquals(2, cache.size());
+        get("go", null, "stars", repository(2, "Go", 20));
+        get("rust", null, "stars");
+        assertEquals(4, queries.get());
+
+        upsert(repository(3, "Rust", 5));
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should not store a listing that was read while an upsert committed")
+    void get_skipsResultsReadAcrossAnInvalidation() {
+        Mono<List<GitHubRepository>> racing = Mono.fromSupplier(() -> {
+            upsert(repository(9, "Go", 1));
+            return List.of(repository(1, "Java", 10));
+        });
+
+        cache.get("java", null, "stars", racing).block();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should not store a listing when an upsert commits between its query and the put")
+    void get_skipsResultsInvalidatedBeforeTheyAreStored() {
+        onWrite = () -> upsert(repository(9, "Go", 1));
+
+        get("java", null, "stars", repository(1, "Java", 10));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should drop a listing read from the read model before its snapshot had the upsert")
+    void onReadModelUpdated_dropsListingsReadBeforeTheSwap() {
+        GitHubRepository updated = repository(1, "Java", 50);
+        upsert(updated);
+        get("java", null, "stars", repository(1, "Java", 10));
+        assertEquals(1, cache.size());
+
+        cache.onReadModelUpdated(new ReadModelUpdatedEvent(List.of(updated)));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should not cache the trending sort")
+    void get_bypassesTrending() {
+        get("java", null, "trending", repository(1, "Java", 10));
+        get("java", null, "trending", repository(1, "Java", 10));
+
+        assertEquals(2, queries.get());
+        assertEquals(0, cache.size());
+    }
+}
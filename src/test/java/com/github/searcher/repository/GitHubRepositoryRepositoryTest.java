@@ -0,0 +1,339 @@
+package com.github.searcher.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.searcher.config.PersistenceConfig;
+import com.github.searcher.dto.RepositoryGrowth;
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositoryChange;
+import com.github.searcher.model.RepositorySort;
+import com.github.searcher.service.GitHubMetrics;
+import com.github.searcher.service.GitHubRepositoryStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.scheduler.Schedulers;
+
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.github.searcher.repository.GitHubRepositoryRepositoryTest$RecordingStatementInspector")
+@Import(PersistenceConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GitHubRepositoryRepositoryTest {
+
+    @Autowired
+    private GitHubRepositoryRepository gitHubRepositoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Records every SQL statement Hibernate prepares; a JDBC batch is prepared once. */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+
+    private static long count(String prefix) {
+        return RecordingStatementInspector.STATEMENTS.stream().filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    private GitHubRepository createTestRepository(Long id, String name, Integer stars) {
+        return new GitHubRepository(id, name, "desc", "owner", "Java", stars, 10,
+                OffsetDateTime.parse("2024-01-01T12:00:00Z", DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+    }
+
+    @BeforeEach
+    void setUp() {
+        gitHubRepositoryRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM repository_changes");
+        jdbcTemplate.update("DELETE FROM repository_daily_stats");
+    }
+
+    @Test
+    @DisplayName("Should upsert a page with one select and one batch per statement type")
+    void upsertAll_batchesWrites() {
+        gitHubRepositoryRepository.saveAll(List.of(createTestRepository(1L, "repo1", 100), createTestRepository(2L, "repo2", 200)));
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        UpsertResult result = gitHubRepositoryRepository.upsertAll(List.of(
+                createTestRepository(1L, "repo1", 150),
+                createTestRepository(2L, "repo2", 200),
+                createTestRepository(3L, "repo3", 300),
+                createTestRepository(4L, "repo4", 400),
+                createTestRepository(5L, "repo5", 500)));
+
+        assertEquals(5, result.getRepositories().size());
+        assertEquals(3, result.getInserted().size());
+        assertEquals(1, result.getUpdated().size());
+        assertEquals(1, result.getUnchanged().size());
+
+        // One SELECT, one batched INSERT per table and one batched UPDATE, instead of a findById + save per item.
+        // Sequence calls depend on how much of the current block of change versions is left, so they are not counted.
+        assertEquals(1, count("select ghr1_0.id"));
+        assertEquals(1, count("insert into github_repositories"));
+        assertEquals(1, count("insert into repository_changes"));
+        assertEquals(1, count("update github_repositories"));
+        assertEquals(4, RecordingStatementInspector.STATEMENTS.size() - count("select next value for repository_changes_seq"),
+                () -> "statements: " + RecordingStatementInspector.STATEMENTS);
+
+        assertEquals(150, gitHubRepositoryRepository.findById(1L).orElseThrow().getStarsCount());
+        assertEquals(5, gitHubRepositoryRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should keep the input order and collapse duplicate ids within a page")
+    void upsertAll_preservesOrderAndDeduplicates() {
+        UpsertResult result = gitHubRepositoryRepository.upsertAll(List.of(
+                createTestRepository(7L, "repo7", 70),
+                createTestRepository(6L, "repo6", 60),
+                createTestRepository(7L, "repo7-renamed", 75)));
+
+        assertEquals(2, result.getRepositories().size());
+        assertEquals(7L, result.getRepositories().get(0).getId());
+        assertEquals("repo7-renamed", result.getRepositories().get(0).getName());
+        assertEquals(6L, result.getRepositories().get(1).getId());
+        assertTrue(result.getUpdated().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return an empty result without touching the database for an empty page")
+    void upsertAll_emptyPage() {
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        UpsertResult result = gitHubRepositoryRepository.upsertAll(List.of());
+
+        assertTrue(result.getRepositories().isEmpty());
+        assertTrue(RecordingStatementInspector.STATEMENTS.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep language_lower in sync on insert and update")
+    void languageLower_maintainedOnWrite() {
+        gitHubRepositoryRepository.upsertAll(List.of(createTestRepository(8L, "repo8", 80)));
+        assertEquals("java", jdbcTemplate.queryForObject("SELECT language_lower FROM github_repositories WHERE id = 8", String.class));
+
+        GitHubRepository renamed = createTestRepository(8L, "repo8", 80);
+        renamed.setLanguage("TypeScript");
+        gitHubRepositoryRepository.upsertAll(List.of(renamed));
+
+        assertEquals("typescript", jdbcTemplate.queryForObject("SELECT language_lower FROM github_repositories WHERE id = 8", String.class));
+    }
+
+    @Test
+    @DisplayName("Should bump last_checked for 304s in bulk and store ETags of re-fetched rows")
+    void applyRefresh_recordsChecks() {
+        gitHubRepositoryRepository.saveAll(List.of(createTestRepository(1L, "repo1", 100), createTestRepository(2L, "repo2", 200),
+                createTestRepository(3L, "repo3", 300)));
+        OffsetDateTime checkedAt = OffsetDateTime.parse("2024-06-01T00:00:00Z");
+        GitHubRepository changed = createTestRepository(2L, "repo2", 250);
+        changed.setEtag("\"v2\"");
+        GitHubRepository same = createTestRepository(3L, "repo3", 300);
+        same.setEtag("\"v3\"");
+
+        UpsertResult result = gitHubRepositoryRepository.applyRefresh(List.of(changed, same, createTestRepository(9L, "gone", 1)),
+                List.of(1L), checkedAt);
+
+        assertEquals(List.of(2L), result.getUpdated().stream().map(GitHubRepository::getId).toList());
+        assertEquals(List.of(3L), result.getUnchanged().stream().map(GitHubRepository::getId).toList());
+        assertTrue(result.getInserted().isEmpty());
+        assertEquals(3, gitHubRepositoryRepository.count());
+        for (long id = 1; id <= 3; id++) {
+            assertTrue(checkedAt.isEqual(gitHubRepositoryRepository.findById(id).orElseThrow().getLastChecked()));
+        }
+        assertEquals(250, gitHubRepositoryRepository.findById(2L).orElseThrow().getStarsCount());
+        assertEquals("\"v3\"", gitHubRepositoryRepository.findById(3L).orElseThrow().getEtag());
+    }
+
+    @Test
+    @DisplayName("Should set retry_after in bulk for rows whose refresh check failed")
+    void postponeRefresh_setsRetryAfter() {
+        gitHubRepositoryRepository.saveAll(List.of(createTestRepository(1L, "repo1", 100), createTestRepository(2L, "repo2", 200)));
+        OffsetDateTime retryAfter = OffsetDateTime.parse("2024-06-01T01:00:00Z");
+
+        assertEquals(1, gitHubRepositoryRepository.postponeRefresh(List.of(2L), retryAfter));
+
+        assertNull(gitHubRepositoryRepository.findById(1L).orElseThrow().getRetryAfter());
+        assertTrue(retryAfter.isEqual(gitHubRepositoryRepository.findById(2L).orElseThrow().getRetryAfter()));
+    }
+
+    @Test
+    @DisplayName("Should log inserts and updates with increasing versions and read them back after a version")
+    void findChangesAfter_returnsLoggedChanges() {
+        gitHubRepositoryRepository.upsertAll(List.of(createTestRepository(1L, "repo1", 100), createTestRepository(2L, "repo2", 200)));
+        gitHubRepositoryRepository.upsertAll(List.of(createTestRepository(1L, "repo1", 150), createTestRepository(2L, "repo2", 200)));
+        gitHubRepositoryRepository.applyRefresh(List.of(createTestRepository(2L, "repo2", 250)), List.of(), OffsetDateTime.parse("2024-06-01T00:00:00Z"));
+
+        List<RepositoryChange> changes = gitHubRepositoryRepository.findChangesAfter(0, 10);
+
+        assertEquals(List.of(1L, 2L, 1L, 2L), changes.stream().map(RepositoryChange::getRepositoryId).toList());
+        assertEquals(List.of(RepositoryChange.Type.INSERT, RepositoryChange.Type.INSERT, RepositoryChange.Type.UPDATE, RepositoryChange.Type.UPDATE),
+                changes.stream().map(RepositoryChange::getType).toList());
+        for (int i = 1; i < changes.size(); i++) {
+            assertTrue(changes.get(i).getVersion() > changes.get(i - 1).getVersion());
+        }
+        assertEquals(250, changes.get(3).getRepository().getStarsCount());
+
+        List<RepositoryChange> later = gitHubRepositoryRepository.findChangesAfter(changes.get(1).getVersion(), 1);
+        assertEquals(1, later.size());
+        assertEquals(changes.get(2).getVersion(), later.get(0).getVersion());
+    }
+
+    @Test
+    @DisplayName("Should roll changes up into daily stats and rank growth against the window's baseline")
+    void rollUpDailyStats_feedsGrowth() {
+        GitHubRepository go = createTestRepository(3L, "repo3", 50);
+        go.setLanguage("Go");
+        gitHubRepositoryRepository.upsertAll(List.of(createTestRepository(1L, "repo1", 100), createTestRepository(2L, "repo2", 200), go));
+        jdbcTemplate.update("UPDATE repository_changes SET changed_at = ?", OffsetDateTime.now(ZoneOffset.UTC).minusDays(40));
+        GitHubRepository goGrown = createTestRepository(3L, "repo3", 400);
+        goGrown.setLanguage("Go");
+        gitHubRepositoryRepository.upsertAll(List.of(createTestRepository(1L, "repo1", 500), createTestRepository(2L, "repo2", 250), goGrown));
+        gitHubRepositoryRepository.upsertAll(List.of(createTestRepository(4L, "repo4", 20)));
+
+        assertEquals(4, gitHubRepositoryRepository.rollUpDailyStats(4));
+        assertEquals(3, gitHubRepositoryRepository.rollUpDailyStats(4));
+        assertEquals(0, gitHubRepositoryRepository.rollUpDailyStats(4));
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM repository_daily_stats", Integer.class));
+
+        LocalDate start = LocalDate.now(ZoneOffset.UTC).minusDays(30);
+        List<RepositoryGrowth> growth = gitHubRepositoryRepository.findGrowth("JAVA", start, 10);
+
+        assertEquals(List.of(1L, 2L, 4L), growth.stream().map(entry -> entry.getRepository().getId()).toList());
+        assertEquals(List.of(400, 50, 0), growth.stream().map(RepositoryGrowth::getStarsGrowth).toList());
+        assertEquals(LocalDate.now(ZoneOffset.UTC).minusDays(40), growth.get(0).getSince());
+        assertEquals(LocalDate.now(ZoneOffset.UTC), growth.get(2).getSince());
+        assertEquals(List.of(1L, 3L), gitHubRepositoryRepository.findGrowth(null, start, 2).stream()
+                .map(entry -> entry.getRepository().getId()).toList());
+    }
+
+    @Test
+    @DisplayName("Should update an earlier day's stats when a later version of the batch falls on that day")
+    void rollUpDailyStats_handlesChangesOutOfDayOrder() {
+        gitHubRepositoryRepository.upsertAll(List.of(createTestRepository(1L, "repo1", 100)));
+        gitHubRepositoryRepository.upsertAll(List.of(createTestRepository(1L, "repo1", 200)));
+        gitHubRepositoryRepository.upsertAll(List.of(createTestRepository(1L, "repo1", 300)));
+        List<RepositoryChange> changes = gitHubRepositoryRepository.findChangesAfter(0, 10);
+        OffsetDateTime today = OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime yesterday = today.minusDays(1);
+        jdbcTemplate.update("UPDATE repository_changes SET changed_at = ? WHERE version = ?", yesterday, changes.get(0).getVersion());
+        jdbcTemplate.update("UPDATE repository_changes SET changed_at = ? WHERE version = ?", today, changes.get(1).getVersion());
+        jdbcTemplate.update("UPDATE repository_changes SET changed_at = ? WHERE version = ?", yesterday, changes.get(2).getVersion());
+
+        assertEquals(1, gitHubRepositoryRepository.rollUpDailyStats(1));
+        assertEquals(2, gitHubRepositoryRepository.rollUpDailyStats(10));
+
+        assertEquals(300, jdbcTemplate.queryForObject("SELECT stars_count FROM repository_daily_stats WHERE stats_day = ?",
+                Integer.class, yesterday.toLocalDate()));
+        assertEquals(200, jdbcTemplate.queryForObject("SELECT stars_count FROM repository_daily_stats WHERE stats_day = ?",
+                Integer.class, today.toLocalDate()));
+    }
+
+    @Test
+    @DisplayName("Should apply an upsert that lost a concurrent insert of the same new row as an update")
+    void upsertAll_retriesInsertLostToConcurrentUpsert() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GitHubRepositoryStore store = new GitHubRepositoryStore(gitHubRepositoryRepository, new GitHubMetrics(meterRegistry),
+                Schedulers.boundedElastic(), event -> { });
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    gitHubRepositoryRepository.upsertAll(List.of(createTestRepository(1L, "repo1", 100)));
+                    gitHubRepositoryRepository.flush();
+                    inserted.countDown();
+                    try {
+                        commit.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+
+        // The second upsert does not see the uncommitted row, so it inserts too and waits on its key.
+        CompletableFuture<UpsertResult> second = store.upsertAll(List.of(createTestRepository(1L, "repo1", 200))).toFuture();
+        Thread.sleep(500);
+        commit.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        UpsertResult result = second.get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(1L), result.getUpdated().stream().map(GitHubRepository::getId).toList());
+        assertEquals(200, gitHubRepositoryRepository.findById(1L).orElseThrow().getStarsCount());
+        assertEquals(2, meterRegistry.get("github.repositories.db").tag("operation", "upsertAll").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should sort rows without a sort key last in keyset order")
+    void findSorted_putsNullKeysLast() {
+        GitHubRepository noStars = createTestRepository(2L, "repo2", 0);
+        noStars.setStarsCount(null);
+        GitHubRepository alsoNoStars = createTestRepository(4L, "repo4", 0);
+        alsoNoStars.setStarsCount(null);
+        gitHubRepositoryRepository.saveAll(List.of(createTestRepository(1L, "repo1", 10), noStars,
+                createTestRepository(3L, "repo3", 30), alsoNoStars));
+
+        List<GitHubRepository> rows = gitHubRepositoryRepository.findSorted(Specification.where(null), RepositorySort.STARS.toKeysetSort(), 10);
+
+        assertEquals(List.of(3L, 1L, 2L, 4L), rows.stream().map(GitHubRepository::getId).toList());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "stars_count, idx_repositories_language_stars",
+            "forks_count, idx_repositories_language_forks",
+            "last_updated, idx_repositories_language_updated"
+    })
+    @DisplayName("Should answer language filter + minStars + sort queries from the matching composite index, in index order")
+    void explain_languageFilterUsesCompositeIndex(String sortColumn, String expectedIndex) {
+        // Same shape as the listing queries: RepositorySort.toKeysetSort(true) leads with language_lower.
+        // Hibernate leaves out NULLS LAST on H2, where it is already the DESC default.
+        for (long id = 1; id <= 50; id++) {
+            GitHubRepository repository = createTestRepository(id, "repo" + id, (int) id);
+            repository.setLanguage(id % 2 == 0 ? "Java" : "Go");
+            gitHubRepositoryRepository.save(repository);
+        }
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM github_repositories WHERE language_lower = 'java' AND stars_count >= 10 "
+                        + "ORDER BY language_lower, " + sortColumn + " DESC, id LIMIT 20", String.class)).toLowerCase(Locale.ROOT);
+
+        assertTrue(plan.contains(expectedIndex), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searcher.handler.GitHubApiException;
+import com.github.searcher.model.GitHubRepository;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+/**
+ * Runs the client against a local GraphQL stub that resolves {@code repoN} to id N, answers
+ * {@code missing} like GitHub answers a deleted repository, and {@code reused} with another id.
+ */
+class GitHubGraphQlClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private volatile boolean failing;
+    private DisposableServer stubServer;
+
+    private GitHubRepository known(long id, String name) {
+        return new GitHubRepository(id, name, null, "owner", null, 0, 0, OffsetDateTime.parse("2024-01-01T00:00:00Z"));
+    }
+
+    private String answer(JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode data = response.putObject("data");
+        JsonNode variables = request.path("variables");
+        for (int i = 0; variables.has("n" + i); i++) {
+            String name = variables.path("n" + i).asText();
+            if (name.equals("missing")) {
+                data.putNull("r" + i);
+                response.putArray("errors").addObject().put("type", "NOT_FOUND").putArray("path").add("r" + i);
+                continue;
+            }
+            ObjectNode node = data.putObject("r" + i)
+                    .put("databaseId", name.equals("reused") ? 999 : Long.parseLong(name.substring("repo".length())))
+                    .put("name", name)
+                    .put("stargazerCount", 42)
+                    .put("forkCount", 7)
+                    .put("updatedAt", "2024-05-01T00:00:00Z");
+            node.putNull("description");
+            node.putObject("owner").put("login", variables.path("o" + i).asText());
+            node.putObject("primaryLanguage").put("name", "Java");
+        }
+        return response.toString();
+    }
+
+    private GitHubGraphQlClient client() {
+        WebClient webClient = WebClient.builder().baseUrl("http://localhost:" + stubServer.port()).build();
+        return new GitHubGraphQlClient(webClient, "/graphql", "test-token", 100, 2);
+    }
+
+    @BeforeEach
+    void setUp() {
+        stubServer = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/graphql", (req, res) -> req.receive().aggregate().asString()
+                        .flatMap(body -> {
+                            authorizations.add(req.requestHeaders().get(HttpHeaders.AUTHORIZATION));
+                            if (failing) {
+                                return res.status(502).sendString(Mono.just("{\"message\":\"Bad gateway\"}")).then();
+                            }
+                            try {
+                                JsonNode request = objectMapper.readTree(body);
+                                requests.add(request);
+                                return res.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                        .sendString(Mono.just(answer(request)))
+                                        .then();
+                            } catch (Exception e) {
+                                return Mono.error(e);
+                            }
+                        })))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Should fetch 150 repositories in two GraphQL requests and map them to entities")
+    void fetch_batchesRequests() {
+        List<GitHubRepository> known = LongStream.rangeClosed(1, 150).mapToObj(id -> known(id, "repo" + id)).toList();
+
+        List<GitHubRepository> fetched = client().fetch(known).collectList().block();
+
+        assertEquals(150, fetched.size());
+        assertEquals(2, requests.size());
+        assertTrue(authorizations.stream().allMatch("Bearer test-token"::equals));
+        GitHubRepository first = fetched.stream().filter(repository -> repository.getId() == 1L).findFirst().orElseThrow();
+        assertEquals(new GitHubRepository(1L, "repo1", null, "owner", "Java", 42, 7, OffsetDateTime.parse("2024-05-01T00:00:00Z")), first);
+
+        assertTrue(requests.stream().allMatch(request -> request.path("query").asText().contains("r0: repository(owner: $o0, name: $n0)")));
+        assertTrue(requests.stream().anyMatch(request -> request.path("variables").path("n0").asText().equals("repo1")));
+    }
+
+    @Test
+    @DisplayName("Should leave out repositories GitHub no longer resolves or that resolve to another id")
+    void fetch_skipsMissingAndReused() {
+        List<GitHubRepository> known = List.of(known(1, "repo1"), known(2, "missing"), known(3, "reused"));
+
+        StepVerifier.create(client().fetch(known).map(GitHubRepository::getId))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should fail with GitHubApiException on an error status")
+    void fetch_errorStatus() {
+        failing = true;
+
+        StepVerifier.create(client().fetch(List.of(known(1, "repo1"))))
+                .expectErrorMatches(error -> error instanceof GitHubApiException
+                        && ((GitHubApiException) error).getStatusCode().value() == 502)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should cap batches at GitHub's 100-node limit")
+    void batchSize_capped() {
+        WebClient webClient = WebClient.builder().baseUrl("http://localhost:" + stubServer.port()).build();
+        GitHubGraphQlClient client = new GitHubGraphQlClient(webClient, "/graphql", "", 500, 1);
+
+        client.fetch(LongStream.rangeClosed(1, 101).mapToObj(id -> known(id, "repo" + id)).toList()).blockLast();
+
+        assertEquals(2, requests.size());
+        assertTrue(authorizations.stream().allMatch(header -> header == null));
+    }
+}
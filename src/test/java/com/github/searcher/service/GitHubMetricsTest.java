@@ -0,0 +1,81 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.repository.UpsertResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class GitHubMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GitHubMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new GitHubMetrics(meterRegistry);
+    }
+
+    private ClientRequest request(String url) {
+        return ClientRequest.create(HttpMethod.GET, URI.create(url)).build();
+    }
+
+    @Test
+    @DisplayName("Should time GitHub calls by resource and response status")
+    void upstreamFilter_recordsStatus() {
+        ExchangeFunction ok = request -> Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        ExchangeFunction forbidden = request -> Mono.just(ClientResponse.create(HttpStatus.FORBIDDEN).build());
+
+        metrics.upstreamFilter().filter(request("https://api.github.com/search/repositories?q=a"), ok).block();
+        metrics.upstreamFilter().filter(request("https://api.github.com/search/repositories?q=b"), forbidden).block();
+        metrics.upstreamFilter().filter(request("https://api.github.com/repositories/1"), ok).block();
+
+        assertEquals(1, meterRegistry.get(GitHubMetrics.UPSTREAM_TIMER).tags("resource", "search", "status", "200").timer().count());
+        assertEquals(1, meterRegistry.get(GitHubMetrics.UPSTREAM_TIMER).tags("resource", "search", "status", "403").timer().count());
+        assertEquals(1, meterRegistry.get(GitHubMetrics.UPSTREAM_TIMER).tags("resource", "repository", "status", "200").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should record failed exchanges as IO_ERROR")
+    void upstreamFilter_recordsErrors() {
+        ExchangeFunction failing = request -> Mono.error(new IOException("Connection reset"));
+
+        StepVerifier.create(metrics.upstreamFilter().filter(request("https://api.github.com/search/repositories?q=a"), failing))
+                .expectError(IOException.class)
+                .verify();
+
+        assertEquals(1, meterRegistry.get(GitHubMetrics.UPSTREAM_TIMER).tags("resource", "search", "status", "IO_ERROR").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should count fetched items and each upsert outcome")
+    void recordUpsert_countsOutcomes() {
+        GitHubRepository repository = new GitHubRepository();
+        UpsertResult result = new UpsertResult(List.of(repository, repository, repository),
+                List.of(repository), List.of(repository), List.of(repository));
+
+        metrics.recordUpsert(4, result);
+
+        assertEquals(4.0, meterRegistry.get(GitHubMetrics.ITEMS_COUNTER).tag("outcome", "fetched").counter().count());
+        assertEquals(1.0, meterRegistry.get(GitHubMetrics.ITEMS_COUNTER).tag("outcome", "inserted").counter().count());
+        assertEquals(1.0, meterRegistry.get(GitHubMetrics.ITEMS_COUNTER).tag("outcome", "updated").counter().count());
+        assertEquals(1.0, meterRegistry.get(GitHubMetrics.ITEMS_COUNTER).tag("outcome", "unchanged").counter().count());
+    }
+}
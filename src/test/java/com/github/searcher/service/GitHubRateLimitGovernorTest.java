@@ -0,0 +1,107 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import com.github.searcher.handler.GitHubRateLimitExceededException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.test.StepVerifier;
+
+class GitHubRateLimitGovernorTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private GitHubRateLimitGovernor governor;
+
+    private HttpHeaders rateLimitHeaders(String resource, long remaining, long resetEpochSeconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(GitHubRateLimitGovernor.RESOURCE_HEADER, resource);
+        headers.add(GitHubRateLimitGovernor.REMAINING_HEADER, String.valueOf(remaining));
+        headers.add(GitHubRateLimitGovernor.RESET_HEADER, String.valueOf(resetEpochSeconds));
+        return headers;
+    }
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        meterRegistry = new SimpleMeterRegistry();
+        governor = new GitHubRateLimitGovernor(30, Duration.ofMinutes(1), Duration.ofMinutes(2), meterRegistry, clock);
+    }
+
+    @Test
+    @DisplayName("Should let a full bucket through and space out further requests by the refill rate")
+    void reserve_queuesOnceBucketIsEmpty() {
+        for (int i = 0; i < 30; i++) {
+            assertEquals(0, governor.reserve());
+        }
+        assertEquals(2000, governor.reserve());
+        assertEquals(4000, governor.reserve());
+
+        clock.advance(Duration.ofSeconds(4));
+        assertEquals(2000, governor.reserve());
+    }
+
+    @Test
+    @DisplayName("Should hold requests until the reset time when GitHub reports an exhausted search budget")
+    void recordResponse_exhaustedBudgetDelaysUntilReset() {
+        long resetEpochSeconds = START.plusSeconds(45).getEpochSecond();
+
+        governor.recordResponse(true, rateLimitHeaders("search", 0, resetEpochSeconds));
+
+        long waitMillis = governor.reserve();
+        assertTrue(waitMillis >= 45_000, "expected to wait for the reset, got " + waitMillis);
+        assertEquals(0.0, meterRegistry.get("github.ratelimit.search.tokens").gauge().value());
+        assertEquals(0.0, meterRegistry.get("github.ratelimit.remaining").tag("resource", "search").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should clamp the bucket to the remaining budget reported by GitHub")
+    void recordResponse_clampsTokens() {
+        governor.recordResponse(true, rateLimitHeaders("search", 2, START.plusSeconds(60).getEpochSecond()));
+
+        assertEquals(0, governor.reserve());
+        assertEquals(0, governor.reserve());
+        assertTrue(governor.reserve() > 0);
+    }
+
+    @Test
+    @DisplayName("Should track the core budget separately from the search bucket")
+    void recordResponse_coreResource() {
+        governor.recordResponse(false, rateLimitHeaders("core", 4999, START.plusSeconds(3600).getEpochSecond()));
+
+        assertEquals(4999, governor.getCoreRemaining());
+        assertEquals(0, governor.reserve());
+        assertEquals(4999.0, meterRegistry.get("github.ratelimit.remaining").tag("resource", "core").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should not let other resources' budgets overwrite the core budget")
+    void recordResponse_graphqlResource() {
+        governor.recordResponse(false, rateLimitHeaders("core", 4999, START.plusSeconds(3600).getEpochSecond()));
+        governor.recordResponse(false, rateLimitHeaders("graphql", 12, START.plusSeconds(60).getEpochSecond()));
+
+        assertEquals(4999, governor.getCoreRemaining());
+    }
+
+    @Test
+    @DisplayName("Should fail fast when the queueing delay would exceed max-wait")
+    void acquire_rejectsBeyondMaxWait() {
+        governor.recordResponse(true, rateLimitHeaders("search", 0, START.plusSeconds(600).getEpochSecond()));
+
+        StepVerifier.create(governor.acquire())
+                .expectError(GitHubRateLimitExceededException.class)
+                .verify();
+        assertEquals(1.0, meterRegistry.get("github.ratelimit.rejected").counter().count());
+    }
+}
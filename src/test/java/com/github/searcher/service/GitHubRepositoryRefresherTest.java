@@ -0,0 +1,214 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.repository.UpsertResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class GitHubRepositoryRefresherTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T00:00:00Z");
+
+    @Mock
+    private GitHubRepositoryStore repositoryStore;
+    @Mock
+    private GitHubGraphQlClient graphQlClient;
+
+    @Captor
+    private ArgumentCaptor<Collection<GitHubRepository>> fetchedCaptor;
+    @Captor
+    private ArgumentCaptor<Collection<Long>> notModifiedCaptor;
+    @Captor
+    private ArgumentCaptor<Collection<Long>> failedCaptor;
+
+    private final Map<String, String> ifNoneMatchByPath = new ConcurrentHashMap<>();
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private GitHubRateLimitGovernor governor;
+    private GitHubRepositoryRefresher refresher;
+
+    private GitHubRepository stored(long id, int stars, String etag) {
+        GitHubRepository repository = new GitHubRepository(id, "repo" + id, null, "owner", "Java", stars, 1,
+                OffsetDateTime.parse("2024-01-01T00:00:00Z"));
+        repository.setEtag(etag);
+        return repository;
+    }
+
+    private ClientResponse respond(String path) {
+        if (path.endsWith("/1")) {
+            return ClientResponse.create(HttpStatus.NOT_MODIFIED).build();
+        }
+        if (path.endsWith("/3")) {
+            return ClientResponse.create(HttpStatus.NOT_FOUND).build();
+        }
+        if (path.endsWith("/4")) {
+            return ClientResponse.create(HttpStatus.UNAVAILABLE_FOR_LEGAL_REASONS).build();
+        }
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ETAG, "\"v2\"")
+                .body("{\"id\":2,\"name\":\"repo2\",\"owner\":{\"login\":\"owner\"},\"language\":\"Java\","
+                        + "\"stargazers_count\":250,\"forks_count\":1,\"topics\":[\"a\"],\"updated_at\":\"2024-05-01T00:00:00Z\"}")
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(NOW);
+        governor = new GitHubRateLimitGovernor(30, Duration.ofMinutes(1), Duration.ofMinutes(2), meterRegistry, clock);
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    String ifNoneMatch = request.headers().getFirst(HttpHeaders.IF_NONE_MATCH);
+                    if (ifNoneMatch != null) {
+                        ifNoneMatchByPath.put(request.url().getPath(), ifNoneMatch);
+                    }
+                    return Mono.just(respond(request.url().getPath()));
+                })
+                .build();
+        refresher = new GitHubRepositoryRefresher(webClient, null, repositoryStore, governor, new GitHubMetrics(meterRegistry),
+                true, GitHubRepositoryRefresher.RefreshMode.REST, Duration.ofMinutes(5), 50, 4, 100,
+                GitHubRepositoryRefresher.parseTiers("1000=1h,0=1d"), Duration.ofHours(1), "/repositories/{id}", clock);
+    }
+
+    @Test
+    @DisplayName("Should send stored ETags and hand 304s and re-fetched rows to the store in one batch")
+    @SuppressWarnings("unchecked")
+    void refreshStale_conditionalRequests() {
+        when(repositoryStore.findFirst(any(Specification.class), any(Sort.class), eq(50)))
+                .thenReturn(Mono.just(List.of(stored(1, 5000, "\"v1\""), stored(2, 200, null), stored(3, 10, "\"gone\""))));
+        when(repositoryStore.applyRefresh(anyCollection(), anyCollection(), any(OffsetDateTime.class)))
+                .thenAnswer(invocation -> {
+                    List<GitHubRepository> fetched = List.copyOf(invocation.<Collection<GitHubRepository>>getArgument(0));
+                    return Mono.just(new UpsertResult(fetched, Collections.emptyList(), fetched, Collections.emptyList()));
+                });
+
+        UpsertResult result = refresher.refreshStale().block(Duration.ofSeconds(5));
+
+        assertEquals(1, result.getUpdated().size());
+        assertEquals("\"v1\"", ifNoneMatchByPath.get("/repositories/1"));
+        assertNull(ifNoneMatchByPath.get("/repositories/2"));
+
+        verify(repositoryStore).applyRefresh(fetchedCaptor.capture(), notModifiedCaptor.capture(), eq(OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC)));
+        GitHubRepository fetched = fetchedCaptor.getValue().iterator().next();
+        assertEquals(2L, fetched.getId());
+        assertEquals(250, fetched.getStarsCount());
+        assertEquals("\"v2\"", fetched.getEtag());
+        assertEquals(List.of(1L, 3L), notModifiedCaptor.getValue().stream().sorted().toList());
+
+        assertEquals(1, meterRegistry.get(GitHubMetrics.REFRESH_COUNTER).tag("outcome", "not_modified").counter().count());
+        assertEquals(1, meterRegistry.get(GitHubMetrics.REFRESH_COUNTER).tag("outcome", "missing").counter().count());
+        assertEquals(1, meterRegistry.get(GitHubMetrics.REFRESH_COUNTER).tag("outcome", "updated").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should push rows that keep failing back by the failure backoff on every cycle")
+    @SuppressWarnings("unchecked")
+    void refreshStale_backsOffFailingRows() {
+        when(repositoryStore.findFirst(any(Specification.class), any(Sort.class), eq(50)))
+                .thenReturn(Mono.just(List.of(stored(4, 50, "\"v4\""))));
+        when(repositoryStore.postponeRefresh(anyCollection(), any(OffsetDateTime.class))).thenReturn(Mono.just(1));
+
+        refresher.refreshStale().block(Duration.ofSeconds(5));
+        clock.advance(Duration.ofHours(2));
+        refresher.refreshStale().block(Duration.ofSeconds(5));
+
+        verify(repositoryStore).postponeRefresh(failedCaptor.capture(), eq(OffsetDateTime.ofInstant(NOW.plus(Duration.ofHours(1)), ZoneOffset.UTC)));
+        assertEquals(List.of(4L), List.copyOf(failedCaptor.getValue()));
+        verify(repositoryStore).postponeRefresh(anyCollection(), eq(OffsetDateTime.ofInstant(NOW.plus(Duration.ofHours(3)), ZoneOffset.UTC)));
+        verify(repositoryStore, never()).applyRefresh(anyCollection(), anyCollection(), any(OffsetDateTime.class));
+        assertEquals(2, meterRegistry.get(GitHubMetrics.REFRESH_COUNTER).tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should leave the reserved core budget to foreground requests")
+    @SuppressWarnings("unchecked")
+    void refreshStale_respectsCoreReserve() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(GitHubRateLimitGovernor.RESOURCE_HEADER, "core");
+        headers.add(GitHubRateLimitGovernor.REMAINING_HEADER, "80");
+        headers.add(GitHubRateLimitGovernor.RESET_HEADER, String.valueOf(NOW.plusSeconds(600).getEpochSecond()));
+        governor.recordResponse(false, headers);
+
+        refresher.refreshStale().block(Duration.ofSeconds(5));
+        verify(repositoryStore, never()).findFirst(any(Specification.class), any(Sort.class), anyInt());
+
+        headers.set(GitHubRateLimitGovernor.REMAINING_HEADER, "110");
+        governor.recordResponse(false, headers);
+        when(repositoryStore.findFirst(any(Specification.class), any(Sort.class), eq(10))).thenReturn(Mono.just(List.of()));
+
+        refresher.refreshStale().block(Duration.ofSeconds(5));
+        verify(repositoryStore).findFirst(any(Specification.class), any(Sort.class), eq(10));
+    }
+
+    @Test
+    @DisplayName("Should fetch the batch over GraphQL in graphql mode and treat unresolved rows as missing")
+    @SuppressWarnings("unchecked")
+    void refreshStale_graphQlMode() {
+        GitHubRepositoryRefresher graphQlRefresher = new GitHubRepositoryRefresher(null, graphQlClient, repositoryStore, governor,
+                new GitHubMetrics(meterRegistry), true, GitHubRepositoryRefresher.RefreshMode.GRAPHQL, Duration.ofMinutes(5), 200, 4, 100,
+                GitHubRepositoryRefresher.parseTiers("0=1d"), Duration.ofHours(1), "/repositories/{id}", clock);
+        List<GitHubRepository> stale = List.of(stored(1, 5000, null), stored(2, 200, null));
+        when(repositoryStore.findFirst(any(Specification.class), any(Sort.class), eq(200))).thenReturn(Mono.just(stale));
+        when(graphQlClient.fetch(stale)).thenReturn(Flux.just(stored(1, 5100, null)));
+        when(repositoryStore.applyRefresh(anyCollection(), anyCollection(), any(OffsetDateTime.class)))
+                .thenReturn(Mono.just(UpsertResult.empty()));
+
+        graphQlRefresher.refreshStale().block(Duration.ofSeconds(5));
+
+        verify(repositoryStore).applyRefresh(fetchedCaptor.capture(), notModifiedCaptor.capture(), any(OffsetDateTime.class));
+        assertEquals(5100, fetchedCaptor.getValue().iterator().next().getStarsCount());
+        assertEquals(List.of(2L), List.copyOf(notModifiedCaptor.getValue()));
+        assertEquals(1, meterRegistry.get(GitHubMetrics.REFRESH_COUNTER).tag("outcome", "missing").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should order tiers by popularity and reject malformed entries")
+    void parseTiers() {
+        List<GitHubRepositoryRefresher.Tier> tiers = GitHubRepositoryRefresher.parseTiers("0=1d, 10000=1h ,1000=6h");
+
+        assertEquals(List.of(10000, 1000, 0), tiers.stream().map(GitHubRepositoryRefresher.Tier::minStars).toList());
+        assertEquals(Duration.ofHours(6), tiers.get(1).maxAge());
+        assertThrows(IllegalArgumentException.class, () -> GitHubRepositoryRefresher.parseTiers("1000"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.searcher.model.GitHubRepository;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class GitHubSearchCacheTest {
+
+    private static final String URL = "/search/repositories?q=spring&order=desc";
+
+    private MutableClock clock;
+    private GitHubSearchCache cache;
+    private AtomicInteger upstreamCalls;
+    private List<String> etagsSent;
+
+    private GitHubSearchPage createPage(String etag) {
+        GitHubRepository repo = new GitHubRepository(1L, "repo1", "desc", "owner", "Java", 10, 1,
+                OffsetDateTime.of(2024, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC));
+        return new GitHubSearchPage(1, List.of(repo), etag, false);
+    }
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        cache = new GitHubSearchCache(true, Duration.ofSeconds(60), Duration.ofMinutes(10), 100, clock);
+        upstreamCalls = new AtomicInteger();
+        etagsSent = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Should serve fresh entries without calling upstream and hand out independent copies")
+    void get_hitWithinTtl() {
+        GitHubSearchPage first = cache.get(URL, etag -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just(createPage("\"v1\""));
+        }).block();
+        GitHubSearchPage second = cache.get(URL, etag -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just(createPage("\"v2\""));
+        }).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("\"v1\"", second.getEtag());
+        assertNotSame(first.getItems().get(0), second.getItems().get(0));
+    }
+
+    @Test
+    @DisplayName("Should revalidate stale entries with If-None-Match and keep them on 304")
+    void get_revalidatesWithEtag() {
+        cache.get(URL, etag -> {
+            etagsSent.add(etag);
+            return Mono.just(createPage("\"v1\""));
+        }).block();
+        clock.advance(Duration.ofSeconds(61));
+
+        GitHubSearchPage revalidated = cache.get(URL, etag -> {
+            etagsSent.add(etag);
+            return Mono.just(GitHubSearchPage.notModified());
+        }).block();
+
+        assertNull(etagsSent.get(0));
+        assertEquals("\"v1\"", etagsSent.get(1));
+        assertEquals(1, revalidated.getItems().size());
+        assertEquals("repo1", revalidated.getItems().get(0).getName());
+
+        // The 304 renewed the entry, so the next call within the TTL is a plain hit.
+        cache.get(URL, etag -> {
+            etagsSent.add(etag);
+            return Mono.just(createPage("\"v2\""));
+        }).block();
+        assertEquals(2, etagsSent.size());
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent misses into a single upstream call")
+    void get_singleFlight() {
+        Sinks.One<GitHubSearchPage> upstream = Sinks.one();
+
+        Mono<GitHubSearchPage> first = cache.get(URL, etag -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<GitHubSearchPage> second = cache.get(URL, etag -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        });
+
+        List<GitHubSearchPage> results = new ArrayList<>();
+        first.subscribe(results::add);
+        second.subscribe(results::add);
+        upstream.tryEmitValue(createPage("\"v1\""));
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(2, results.size());
+        assertNotSame(results.get(0), results.get(1));
+    }
+
+    @Test
+    @DisplayName("Should not cache failed upstream calls")
+    void get_errorsAreNotCached() {
+        cache.get(URL, etag -> Mono.<GitHubSearchPage>error(new IllegalStateException("boom")))
+                .onErrorResume(e -> Mono.empty())
+                .block();
+
+        GitHubSearchPage page = cache.get(URL, etag -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just(createPage("\"v1\""));
+        }).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, page.getItems().size());
+    }
+
+    @Test
+    @DisplayName("Should always call upstream when disabled")
+    void get_disabled() {
+        GitHubSearchCache disabled = new GitHubSearchCache(false, Duration.ofSeconds(60), Duration.ofMinutes(10), 100, clock);
+
+        disabled.get(URL, etag -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just(createPage("\"v1\""));
+        }).block();
+        disabled.get(URL, etag -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just(createPage("\"v1\""));
+        }).block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(0, disabled.size());
+    }
+}
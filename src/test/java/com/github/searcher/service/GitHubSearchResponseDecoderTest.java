@@ -0,0 +1,149 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.github.searcher.model.GitHubRepository;
+
+import reactor.core.publisher.Flux;
+
+class GitHubSearchResponseDecoderTest {
+
+    private static final String RESPONSE = "{"
+            + "\"total_count\":2,\"incomplete_results\":false,\"items\":["
+            + "{\"id\":1,\"node_id\":\"R_1\",\"name\":\"repo1\",\"full_name\":\"owner1/repo1\","
+            + "\"owner\":{\"login\":\"owner1\",\"id\":10,\"type\":\"User\",\"site_admin\":false},"
+            + "\"description\":\"desc1\",\"topics\":[\"spring\",\"java\"],"
+            + "\"license\":{\"key\":\"mit\",\"name\":\"MIT License\"},"
+            + "\"stargazers_count\":100,\"forks_count\":10,\"language\":\"Java\","
+            + "\"updated_at\":\"2023-01-01T12:00:00Z\",\"score\":1.0},"
+            + "{\"id\":2,\"name\":\"repo2\",\"owner\":{\"login\":\"owner2\"},"
+            + "\"description\":null,\"language\":null,\"updated_at\":\"2024-02-03T04:05:06Z\"}"
+            + "]}";
+
+    private List<GitHubRepository> decodeInChunks(GitHubSearchResponseDecoder decoder, String json, int chunkSize) throws Exception {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<GitHubRepository> result = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            result.addAll(decoder.feed(ByteBuffer.wrap(bytes, offset, Math.min(chunkSize, bytes.length - offset))));
+        }
+        result.addAll(decoder.endOfInput());
+        return result;
+    }
+
+    @Test
+    @DisplayName("Should extract only the persisted fields regardless of how the body is chunked")
+    void feed_extractsFieldsAcrossChunkBoundaries() throws Exception {
+        for (int chunkSize : new int[] {1, 7, 64, RESPONSE.length()}) {
+            GitHubSearchResponseDecoder decoder = new GitHubSearchResponseDecoder();
+
+            List<GitHubRepository> repositories = decodeInChunks(decoder, RESPONSE, chunkSize);
+
+            assertEquals(2, decoder.getTotalCount());
+            assertTrue(decoder.hasItems());
+            assertEquals(2, repositories.size());
+            GitHubRepository first = repositories.get(0);
+            assertEquals(1L, first.getId());
+            assertEquals("repo1", first.getName());
+            assertEquals("owner1", first.getOwnerName());
+            assertEquals("desc1", first.getDescription());
+            assertEquals("Java", first.getLanguage());
+            assertEquals(100, first.getStarsCount());
+            assertEquals(10, first.getForksCount());
+            assertEquals(OffsetDateTime.parse("2023-01-01T12:00:00Z"), first.getLastUpdated());
+
+            GitHubRepository second = repositories.get(1);
+            assertEquals("repo2", second.getName());
+            assertNull(second.getDescription());
+            assertNull(second.getLanguage());
+            assertEquals(0, second.getStarsCount());
+            assertEquals(0, second.getForksCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should emit each repository as soon as its object is complete")
+    void feed_emitsIncrementally() throws Exception {
+        GitHubSearchResponseDecoder decoder = new GitHubSearchResponseDecoder();
+        byte[] bytes = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        int endOfFirstItem = RESPONSE.indexOf("\"score\":1.0}") + "\"score\":1.0}".length();
+
+        List<GitHubRepository> firstChunk = decoder.feed(ByteBuffer.wrap(bytes, 0, endOfFirstItem));
+        List<GitHubRepository> rest = decoder.feed(ByteBuffer.wrap(bytes, endOfFirstItem, bytes.length - endOfFirstItem));
+
+        assertEquals(1, firstChunk.size());
+        assertEquals("repo1", firstChunk.get(0).getName());
+        assertEquals(1, rest.size());
+        assertEquals("repo2", rest.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should skip items missing id, name or owner login")
+    void feed_skipsIncompleteItems() throws Exception {
+        String json = "{\"total_count\":3,\"items\":["
+                + "{\"id\":1,\"name\":\"no-owner\"},"
+                + "{\"id\":2,\"name\":\"null-owner\",\"owner\":null},"
+                + "{\"id\":3,\"name\":\"ok\",\"owner\":{\"login\":\"someone\",\"name\":\"ignored\"}}"
+                + "]}";
+        GitHubSearchResponseDecoder decoder = new GitHubSearchResponseDecoder();
+
+        List<GitHubRepository> repositories = decodeInChunks(decoder, json, 16);
+
+        assertEquals(1, repositories.size());
+        assertEquals("ok", repositories.get(0).getName());
+        assertEquals("someone", repositories.get(0).getOwnerName());
+    }
+
+    @Test
+    @DisplayName("Should report a response without an items array")
+    void feed_missingItems() throws Exception {
+        GitHubSearchResponseDecoder decoder = new GitHubSearchResponseDecoder();
+
+        List<GitHubRepository> repositories = decodeInChunks(decoder, "{\"message\":\"Validation Failed\"}", 8);
+
+        assertTrue(repositories.isEmpty());
+        assertFalse(decoder.hasItems());
+    }
+
+    @Test
+    @DisplayName("Should decode a DataBuffer stream")
+    void decode_dataBuffers() {
+        byte[] bytes = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        int split = bytes.length / 2;
+        DataBuffer first = DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(bytes, 0, split).slice());
+        DataBuffer second = DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(bytes, split, bytes.length - split).slice());
+
+        List<GitHubRepository> repositories = new GitHubSearchResponseDecoder().decode(Flux.just(first, second)).collectList().block();
+
+        assertEquals(2, repositories.size());
+    }
+
+    @Test
+    @DisplayName("Should decode a single-repository response whose root object is the item")
+    void forRepository_decodesRootObject() throws Exception {
+        String json = "{\"id\":5,\"name\":\"repo5\",\"owner\":{\"login\":\"owner5\"},\"topics\":[\"x\"],"
+                + "\"parent\":{\"id\":4,\"name\":\"upstream\",\"owner\":{\"login\":\"other\"}},"
+                + "\"stargazers_count\":42,\"language\":\"Go\",\"updated_at\":\"2024-02-03T04:05:06Z\"}";
+
+        List<GitHubRepository> repositories = decodeInChunks(GitHubSearchResponseDecoder.forRepository(), json, 5);
+
+        assertEquals(1, repositories.size());
+        assertEquals(5L, repositories.get(0).getId());
+        assertEquals("repo5", repositories.get(0).getName());
+        assertEquals("owner5", repositories.get(0).getOwnerName());
+        assertEquals(42, repositories.get(0).getStarsCount());
+    }
+}
@@ -3,24 +3,35 @@ package com.github.searcher.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.endsWith;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -28,25 +39,38 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.searcher.dto.BatchSearchResult;
+import com.github.searcher.dto.RepositoryPage;
 import com.github.searcher.dto.SearchRequest;
 import com.github.searcher.handler.GitHubApiException;
 import com.github.searcher.handler.GitHubRateLimitExceededException;
 import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositorySort;
 import com.github.searcher.repository.GitHubRepositoryRepository;
+import com.github.searcher.repository.UpsertResult;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
 
 @ExtendWith(MockitoExtension.class)
 class GitHubServiceTest {
@@ -60,8 +84,8 @@ class GitHubServiceTest {
     @Mock private WebClient.RequestHeadersSpec requestHeadersSpec;
     @Mock private WebClient.ResponseSpec responseSpec;
 
-    @InjectMocks
     private GitHubService gitHubService;
+    private SimpleMeterRegistry meterRegistry;
 
     private ObjectMapper objectMapper = new ObjectMapper();
 
@@ -69,9 +93,44 @@ class GitHubServiceTest {
         return new GitHubRepository(id, name, description, owner, language, stars, forks, OffsetDateTime.parse(lastUpdated, DateTimeFormatter.ISO_OFFSET_DATE_TIME));
     }
 
+    private Mono<ResponseEntity<Flux<DataBuffer>>> createResponse(String json) {
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+        Flux<DataBuffer> body = Flux.just(buffer);
+        return Mono.just(ResponseEntity.ok(body));
+    }
+
+    private String createSearchResponse(int totalCount, int firstId, int itemCount) {
+        ObjectNode response = objectMapper.createObjectNode().put("total_count", totalCount);
+        ArrayNode items = response.putArray("items");
+        for (int id = firstId; id < firstId + itemCount; id++) {
+            ObjectNode item = items.addObject()
+                    .put("id", id)
+                    .put("name", "repo" + id)
+                    .put("language", "Java")
+                    .put("stargazers_count", id)
+                    .put("forks_count", 1)
+                    .put("updated_at", "2024-01-01T12:00:00Z");
+            item.putObject("owner").put("login", "owner" + id);
+        }
+        return response.toString();
+    }
+
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        GitHubMetrics metrics = new GitHubMetrics(meterRegistry);
+        GitHubRepositoryStore repositoryStore = new GitHubRepositoryStore(gitHubRepositoryRepository, metrics,
+                Schedulers.boundedElastic(), event -> { });
+        gitHubService = new GitHubService(webClient, repositoryStore,
+                new GitHubSearchCache(false, Duration.ofMinutes(1), Duration.ofMinutes(10), 100), metrics,
+                new RepositoryReadModel(false, repositoryStore, Schedulers.immediate(), event -> { }), new RepositoryTextIndex(false, repositoryStore, Schedulers.immediate()),
+                new RepositoryLeaderboards(false, 1000, 100, repositoryStore),
+                new GitHubRateLimitGovernor(1000, Duration.ofMinutes(1), Duration.ofMinutes(2), meterRegistry),
+                new RepositoryWriteBehindBuffer(false, 100, 10, Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1),
+                        repositoryStore, metrics, meterRegistry),
+                new RepositoryTrending(false, Duration.ofDays(7), Duration.ofHours(1), repositoryStore));
         org.springframework.test.util.ReflectionTestUtils.setField(gitHubService, "searchRepositoriesPath", "/search/repositories");
+        org.springframework.test.util.ReflectionTestUtils.setField(gitHubService, "batchConcurrency", 1);
 
         lenient().when(webClient.get()).thenReturn(requestHeadersUriSpec);
         lenient().when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
@@ -87,11 +146,12 @@ class GitHubServiceTest {
     void searchAndSaveRepositories_successfulFetchAndSaveNew() throws Exception {
         SearchRequest searchRequest = new SearchRequest("test-repo", "Java", "stars");
         String githubApiResponse = "{\"items\":[{\"id\":1,\"name\":\"repo1\",\"description\":\"desc1\",\"owner\":{\"login\":\"owner1\"},\"language\":\"Java\",\"stargazers_count\":100,\"forks_count\":10,\"updated_at\":\"2023-01-01T12:00:00Z\"}]}";
-        JsonNode jsonNode = objectMapper.readTree(githubApiResponse);
 
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.just(jsonNode));
-        when(gitHubRepositoryRepository.findById(anyLong())).thenReturn(Optional.empty());
-        when(gitHubRepositoryRepository.save(any(GitHubRepository.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(createResponse(githubApiResponse));
+        when(gitHubRepositoryRepository.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            List<GitHubRepository> fetched = invocation.getArgument(0);
+            return new UpsertResult(fetched, fetched, Collections.emptyList(), Collections.emptyList());
+        });
 
         List<GitHubRepository> result = gitHubService.searchAndSaveRepositories(searchRequest).block();
 
@@ -99,7 +159,9 @@ class GitHubServiceTest {
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals("repo1", result.get(0).getName());
-        verify(gitHubRepositoryRepository, times(1)).save(any(GitHubRepository.class));
+        verify(gitHubRepositoryRepository, times(1)).upsertAll(anyCollection());
+        verify(gitHubRepositoryRepository, never()).findById(anyLong());
+        verify(gitHubRepositoryRepository, never()).save(any(GitHubRepository.class));
     }
 
     @Test
@@ -107,13 +169,15 @@ class GitHubServiceTest {
     void searchAndSaveRepositories_successfulFetchAndUpdateExisting() throws Exception {
         SearchRequest searchRequest = new SearchRequest("test-repo", "Java", "stars");
         String githubApiResponse = "{\"items\":[{\"id\":1,\"name\":\"repo1_updated\",\"description\":\"desc1_updated\",\"owner\":{\"login\":\"owner1\"},\"language\":\"Java\",\"stargazers_count\":200,\"forks_count\":20,\"updated_at\":\"2024-01-01T12:00:00Z\"}]}";
-        JsonNode jsonNode = objectMapper.readTree(githubApiResponse);
 
         GitHubRepository existingRepo = createTestRepository(1L, "repo1", "desc1", "owner1", "Java", 100, 10, "2023-01-01T12:00:00Z");
 
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.just(jsonNode));
-        when(gitHubRepositoryRepository.findById(1L)).thenReturn(Optional.of(existingRepo));
-        when(gitHubRepositoryRepository.save(any(GitHubRepository.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(createResponse(githubApiResponse));
+        when(gitHubRepositoryRepository.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            List<GitHubRepository> fetched = invocation.getArgument(0);
+            existingRepo.updateFrom(fetched.get(0));
+            return new UpsertResult(List.of(existingRepo), Collections.emptyList(), List.of(existingRepo), Collections.emptyList());
+        });
 
         List<GitHubRepository> result = gitHubService.searchAndSaveRepositories(searchRequest).block();
 
@@ -122,7 +186,11 @@ class GitHubServiceTest {
         assertEquals(1, result.size());
         assertEquals("repo1_updated", result.get(0).getName());
         assertEquals(200, result.get(0).getStarsCount());
-        verify(gitHubRepositoryRepository, times(1)).save(any(GitHubRepository.class));
+        verify(gitHubRepositoryRepository, times(1)).upsertAll(anyCollection());
+        assertEquals(1.0, meterRegistry.get(GitHubMetrics.ITEMS_COUNTER).tag("outcome", "fetched").counter().count());
+        assertEquals(1.0, meterRegistry.get(GitHubMetrics.ITEMS_COUNTER).tag("outcome", "updated").counter().count());
+        assertEquals(0.0, meterRegistry.get(GitHubMetrics.ITEMS_COUNTER).tag("outcome", "inserted").counter().count());
+        assertEquals(1, meterRegistry.get(GitHubMetrics.DB_TIMER).tag("operation", "upsertAll").timer().count());
     }
 
     @Test
@@ -130,12 +198,12 @@ class GitHubServiceTest {
     void searchAndSaveRepositories_noUpdateIfIdentical() throws Exception {
         SearchRequest searchRequest = new SearchRequest("test-repo", "Java", "stars");
         String githubApiResponse = "{\"items\":[{\"id\":1,\"name\":\"repo1\",\"description\":\"desc1\",\"owner\":{\"login\":\"owner1\"},\"language\":\"Java\",\"stargazers_count\":100,\"forks_count\":10,\"updated_at\":\"2023-01-01T12:00:00Z\"}]}";
-        JsonNode jsonNode = objectMapper.readTree(githubApiResponse);
 
         GitHubRepository existingRepo = createTestRepository(1L, "repo1", "desc1", "owner1", "Java", 100, 10, "2023-01-01T12:00:00Z");
 
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.just(jsonNode));
-        when(gitHubRepositoryRepository.findById(1L)).thenReturn(Optional.of(existingRepo));
+        when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(createResponse(githubApiResponse));
+        when(gitHubRepositoryRepository.upsertAll(anyCollection()))
+                .thenReturn(new UpsertResult(List.of(existingRepo), Collections.emptyList(), Collections.emptyList(), List.of(existingRepo)));
 
         List<GitHubRepository> result = gitHubService.searchAndSaveRepositories(searchRequest).block();
 
@@ -151,15 +219,114 @@ class GitHubServiceTest {
     void searchAndSaveRepositories_noItemsFromGitHub() throws Exception {
         SearchRequest searchRequest = new SearchRequest("nonexistent", null, null);
         String githubApiResponse = "{\"items\":[]}";
-        JsonNode jsonNode = objectMapper.readTree(githubApiResponse);
 
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.just(jsonNode));
+        when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(createResponse(githubApiResponse));
 
         List<GitHubRepository> result = gitHubService.searchAndSaveRepositories(searchRequest).block();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(gitHubRepositoryRepository, never()).save(any());
+        verify(gitHubRepositoryRepository, never()).upsertAll(any());
+    }
+
+    @Test
+    @DisplayName("Should save each search of a batch once, skip rows an earlier search saved and report failures per search")
+    void searchAndSaveBatch_savesEachSearchAndReportsPerSearch() {
+        when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(
+                createResponse(createSearchResponse(2, 1, 2)),
+                createResponse(createSearchResponse(2, 2, 2)),
+                Mono.error(new GitHubApiException("GitHub API client error: Validation Failed", HttpStatus.UNPROCESSABLE_ENTITY)));
+        when(gitHubRepositoryRepository.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            List<GitHubRepository> fetched = new ArrayList<>(invocation.getArgument(0));
+            return new UpsertResult(fetched, fetched, Collections.emptyList(), Collections.emptyList());
+        });
+
+        List<BatchSearchResult> results = gitHubService.searchAndSaveBatch(List.of(
+                new SearchRequest("alpha", null, null), new SearchRequest("beta", null, null), new SearchRequest("gamma", null, null)))
+                .collectSortedList(Comparator.comparingInt(BatchSearchResult::getIndex)).block();
+
+        assertEquals(3, results.size());
+        assertEquals(List.of(1L, 2L), results.get(0).getRepositories().stream().map(GitHubRepository::getId).toList());
+        assertEquals(List.of(2L, 3L), results.get(1).getRepositories().stream().map(GitHubRepository::getId).toList());
+        assertSame(results.get(0).getRepositories().get(1), results.get(1).getRepositories().get(0));
+        assertNull(results.get(1).getError());
+        assertTrue(results.get(2).getRepositories().isEmpty());
+        assertEquals("GitHub API client error: Validation Failed", results.get(2).getError());
+        verify(gitHubRepositoryRepository).upsertAll(argThat(
+                (Collection<GitHubRepository> repositories) -> repositories.stream().map(GitHubRepository::getId).toList().equals(List.of(1L, 2L))));
+        verify(gitHubRepositoryRepository).upsertAll(argThat(
+                (Collection<GitHubRepository> repositories) -> repositories.stream().map(GitHubRepository::getId).toList().equals(List.of(3L))));
+        verify(gitHubRepositoryRepository, times(2)).upsertAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should emit a batch search's result as soon as it is saved, before the other searches finish")
+    void searchAndSaveBatch_streamsEachSearchOnceSaved() {
+        Sinks.One<ResponseEntity<Flux<DataBuffer>>> slowSearch = Sinks.one();
+        when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(
+                createResponse(createSearchResponse(600, 1, 100)), slowSearch.asMono());
+        when(gitHubRepositoryRepository.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            List<GitHubRepository> fetched = new ArrayList<>(invocation.getArgument(0));
+            return new UpsertResult(fetched, fetched, Collections.emptyList(), Collections.emptyList());
+        });
+
+        StepVerifier.create(gitHubService.searchAndSaveBatch(List.of(
+                        new SearchRequest("alpha", null, null), new SearchRequest("beta", null, null))))
+                .assertNext(result -> {
+                    assertEquals(0, result.getIndex());
+                    assertEquals(100, result.getRepositories().size());
+                    verify(gitHubRepositoryRepository, times(1)).upsertAll(anyCollection());
+                })
+                .then(() -> slowSearch.tryEmitValue(createResponse(createSearchResponse(600, 101, 100)).block()))
+                .assertNext(result -> assertEquals(1, result.getIndex()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        verify(gitHubRepositoryRepository, times(2)).upsertAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should follow pagination with per_page=100 until maxResults is reached and persist no rows past it")
+    void searchAndSaveRepositories_multiPage() throws Exception {
+        SearchRequest searchRequest = new SearchRequest("test-repo", "Java", "stars", 150);
+
+        when(responseSpec.toEntityFlux(DataBuffer.class))
+                .thenReturn(createResponse(createSearchResponse(500, 1, 100)), createResponse(createSearchResponse(500, 101, 100)));
+        when(gitHubRepositoryRepository.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            List<GitHubRepository> fetched = invocation.getArgument(0);
+            return new UpsertResult(fetched, fetched, Collections.emptyList(), Collections.emptyList());
+        });
+
+        List<GitHubRepository> result = gitHubService.searchAndSaveRepositories(searchRequest).block();
+
+        assertNotNull(result);
+        assertEquals(150, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(150L, result.get(149).getId());
+        verify(requestHeadersUriSpec).uri(endsWith("&per_page=100&page=1"));
+        verify(requestHeadersUriSpec).uri(endsWith("&per_page=100&page=2"));
+        verify(gitHubRepositoryRepository, times(2)).upsertAll(anyCollection());
+        verify(gitHubRepositoryRepository).upsertAll(argThat(
+                (Collection<GitHubRepository> repositories) -> repositories.size() == 50
+                        && repositories.stream().allMatch(repository -> repository.getId() > 100 && repository.getId() <= 150)));
+    }
+
+    @Test
+    @DisplayName("Should stop paging when GitHub returns a short page")
+    void searchAndSaveRepositories_multiPageStopsOnShortPage() throws Exception {
+        SearchRequest searchRequest = new SearchRequest("test-repo", null, null, 1000);
+
+        when(responseSpec.toEntityFlux(DataBuffer.class))
+                .thenReturn(createResponse(createSearchResponse(5000, 1, 100)), createResponse(createSearchResponse(5000, 101, 20)));
+        when(gitHubRepositoryRepository.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            List<GitHubRepository> fetched = invocation.getArgument(0);
+            return new UpsertResult(fetched, fetched, Collections.emptyList(), Collections.emptyList());
+        });
+
+        List<GitHubRepository> result = gitHubService.searchAndSaveRepositories(searchRequest).block();
+
+        assertNotNull(result);
+        assertEquals(120, result.size());
+        verify(requestHeadersUriSpec, never()).uri(endsWith("&page=3"));
     }
 
     @Test
@@ -167,14 +334,14 @@ class GitHubServiceTest {
     void searchAndSaveRepositories_rateLimitExceeded() {
         SearchRequest searchRequest = new SearchRequest("test", null, null);
 
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.error(
+        when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(Mono.error(
             new GitHubRateLimitExceededException("GitHub API rate limit exceeded. Please try again later.", 60)
         ));
 
         assertThrows(GitHubRateLimitExceededException.class,
                 () -> gitHubService.searchAndSaveRepositories(searchRequest).block());
 
-        verify(gitHubRepositoryRepository, never()).save(any());
+        verify(gitHubRepositoryRepository, never()).upsertAll(any());
     }
 
     @Test
@@ -182,7 +349,7 @@ class GitHubServiceTest {
     void searchAndSaveRepositories_clientError() {
         SearchRequest searchRequest = new SearchRequest("invalid", null, null);
 
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.error(
+        when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(Mono.error(
             new GitHubApiException("GitHub API client error: Invalid query parameter.", HttpStatus.BAD_REQUEST)
         ));
 
@@ -191,7 +358,7 @@ class GitHubServiceTest {
 
         assertEquals(HttpStatus.BAD_REQUEST, thrown.getStatusCode());
         assertTrue(thrown.getMessage().contains("Invalid query parameter"));
-        verify(gitHubRepositoryRepository, never()).save(any());
+        verify(gitHubRepositoryRepository, never()).upsertAll(any());
     }
 
     @Test
@@ -199,7 +366,7 @@ class GitHubServiceTest {
     void searchAndSaveRepositories_serverError() {
         SearchRequest searchRequest = new SearchRequest("test", null, null);
 
-        when(responseSpec.bodyToMono(JsonNode.class)).thenReturn(Mono.error(
+        when(responseSpec.toEntityFlux(DataBuffer.class)).thenReturn(Mono.error(
             new GitHubApiException("GitHub API server error: Internal server issue.", HttpStatus.INTERNAL_SERVER_ERROR)
         ));
 
@@ -208,7 +375,7 @@ class GitHubServiceTest {
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, thrown.getStatusCode());
         assertTrue(thrown.getMessage().contains("Internal server issue"));
-        verify(gitHubRepositoryRepository, never()).save(any());
+        verify(gitHubRepositoryRepository, never()).upsertAll(any());
     }
 
     @Test
@@ -218,7 +385,7 @@ class GitHubServiceTest {
         GitHubRepository repo2 = createTestRepository(2L, "repoB", "desc", "ownerB", "Python", 100, 10, "2024-01-02T12:00:00Z");
         List<GitHubRepository> mockRepos = Arrays.asList(repo1, repo2);
 
-        when(gitHubRepositoryRepository.findAll(any(Specification.class), eq(Sort.by(Sort.Direction.DESC, "starsCount"))))
+        when(gitHubRepositoryRepository.findSorted(any(Specification.class), eq(RepositorySort.STARS.toKeysetSort(false))))
                 .thenReturn(mockRepos);
 
         List<GitHubRepository> result = gitHubService.getStoredRepositories(null, null, null).block();
@@ -226,7 +393,7 @@ class GitHubServiceTest {
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals(repo1.getName(), result.get(0).getName());
-        verify(gitHubRepositoryRepository, times(1)).findAll(any(Specification.class), any(Sort.class));
+        verify(gitHubRepositoryRepository, times(1)).findSorted(any(Specification.class), any(Sort.class));
     }
 
     @Test
@@ -235,7 +402,7 @@ class GitHubServiceTest {
         GitHubRepository repo1 = createTestRepository(1L, "repoA", "desc", "ownerA", "Java", 200, 20, "2024-01-01T12:00:00Z");
         List<GitHubRepository> mockRepos = Collections.singletonList(repo1);
 
-        when(gitHubRepositoryRepository.findAll(any(Specification.class), eq(Sort.by(Sort.Direction.DESC, "starsCount"))))
+        when(gitHubRepositoryRepository.findSorted(any(Specification.class), eq(RepositorySort.STARS.toKeysetSort(true))))
                 .thenReturn(mockRepos);
 
         List<GitHubRepository> result = gitHubService.getStoredRepositories("Java", null, null).block();
@@ -243,7 +410,7 @@ class GitHubServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Java", result.get(0).getLanguage());
-        verify(gitHubRepositoryRepository, times(1)).findAll(any(Specification.class), any(Sort.class));
+        verify(gitHubRepositoryRepository, times(1)).findSorted(any(Specification.class), any(Sort.class));
     }
 
     @Test
@@ -252,7 +419,7 @@ class GitHubServiceTest {
         GitHubRepository repo1 = createTestRepository(1L, "repoA", "desc", "ownerA", "Java", 500, 20, "2024-01-01T12:00:00Z");
         List<GitHubRepository> mockRepos = Collections.singletonList(repo1);
 
-        when(gitHubRepositoryRepository.findAll(any(Specification.class), eq(Sort.by(Sort.Direction.DESC, "starsCount"))))
+        when(gitHubRepositoryRepository.findSorted(any(Specification.class), eq(RepositorySort.STARS.toKeysetSort(false))))
                 .thenReturn(mockRepos);
 
         List<GitHubRepository> result = gitHubService.getStoredRepositories(null, 400, null).block();
@@ -260,7 +427,7 @@ class GitHubServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertTrue(result.get(0).getStarsCount() >= 400);
-        verify(gitHubRepositoryRepository, times(1)).findAll(any(Specification.class), any(Sort.class));
+        verify(gitHubRepositoryRepository, times(1)).findSorted(any(Specification.class), any(Sort.class));
     }
 
     @Test
@@ -270,7 +437,7 @@ class GitHubServiceTest {
         GitHubRepository repo2 = createTestRepository(2L, "repoB", "desc", "ownerB", "Python", 100, 100, "2024-01-02T12:00:00Z");
         List<GitHubRepository> mockRepos = Arrays.asList(repo2, repo1);
 
-        when(gitHubRepositoryRepository.findAll(any(Specification.class), eq(Sort.by(Sort.Direction.DESC, "forksCount"))))
+        when(gitHubRepositoryRepository.findSorted(any(Specification.class), eq(RepositorySort.FORKS.toKeysetSort(false))))
                 .thenReturn(mockRepos);
 
         List<GitHubRepository> result = gitHubService.getStoredRepositories(null, null, "forks").block();
@@ -279,19 +446,130 @@ class GitHubServiceTest {
         assertEquals(2, result.size());
         assertEquals(repo2.getName(), result.get(0).getName());
         assertEquals(repo1.getName(), result.get(1).getName());
-        verify(gitHubRepositoryRepository, times(1)).findAll(any(Specification.class), eq(Sort.by(Sort.Direction.DESC, "forksCount")));
+        verify(gitHubRepositoryRepository, times(1)).findSorted(any(Specification.class), eq(RepositorySort.FORKS.toKeysetSort(false)));
     }
 
     @Test
     @DisplayName("Should return empty list if no stored repositories match criteria")
     void getStoredRepositories_noMatchingResults() {
-        when(gitHubRepositoryRepository.findAll(any(Specification.class), any(Sort.class)))
+        when(gitHubRepositoryRepository.findSorted(any(Specification.class), any(Sort.class)))
                 .thenReturn(Collections.emptyList());
 
         List<GitHubRepository> result = gitHubService.getStoredRepositories("NonExistent", 9999, "stars").block();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(gitHubRepositoryRepository, times(1)).findAll(any(Specification.class), any(Sort.class));
+        verify(gitHubRepositoryRepository, times(1)).findSorted(any(Specification.class), any(Sort.class));
+    }
+
+    @Test
+    @DisplayName("Should return a keyset page with a cursor when more rows are available")
+    void getStoredRepositoriesPage_returnsNextCursor() {
+        GitHubRepository repo1 = createTestRepository(1L, "repoA", "desc", "ownerA", "Java", 300, 20, "2024-01-01T12:00:00Z");
+        GitHubRepository repo2 = createTestRepository(2L, "repoB", "desc", "ownerB", "Java", 200, 10, "2024-01-02T12:00:00Z");
+        GitHubRepository repo3 = createTestRepository(3L, "repoC", "desc", "ownerC", "Java", 100, 10, "2024-01-03T12:00:00Z");
+
+        doReturn(Arrays.asList(repo1, repo2, repo3))
+                .when(gitHubRepositoryRepository).findSorted(any(Specification.class), any(Sort.class), anyInt());
+
+        RepositoryPage page = gitHubService.getStoredRepositoriesPage("Java", null, "stars", null, 2).block();
+
+        assertNotNull(page);
+        assertEquals(2, page.getRepositories().size());
+        assertNotNull(page.getNextCursor());
+        RepositoryCursor cursor = RepositoryCursor.decode(page.getNextCursor(), RepositorySort.STARS);
+        assertEquals(200, cursor.getCount());
+        assertEquals(2L, cursor.getId());
+        verify(gitHubRepositoryRepository, never()).findAll(any(Specification.class), any(Sort.class));
+    }
+
+    @Test
+    @DisplayName("Should return the last keyset page without a cursor")
+    void getStoredRepositoriesPage_lastPage() {
+        GitHubRepository repo1 = createTestRepository(1L, "repoA", "desc", "ownerA", "Java", 300, 20, "2024-01-01T12:00:00Z");
+        String cursor = new RepositoryCursor(RepositorySort.LAST_UPDATED, null, OffsetDateTime.parse("2024-02-01T00:00:00Z"), 9L).encode();
+
+        doReturn(Collections.singletonList(repo1))
+                .when(gitHubRepositoryRepository).findSorted(any(Specification.class), any(Sort.class), anyInt());
+
+        RepositoryPage page = gitHubService.getStoredRepositoriesPage(null, null, "updated", cursor, 2).block();
+
+        assertNotNull(page);
+        assertEquals(1, page.getRepositories().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should continue after a row without a sort key using the -1 cursor sentinel")
+    void getStoredRepositoriesPage_nullKeyCursor() {
+        GitHubRepository repo1 = createTestRepository(1L, "repoA", "desc", "ownerA", "Java", 300, null, "2024-01-01T12:00:00Z");
+        GitHubRepository repo2 = createTestRepository(2L, "repoB", "desc", "ownerB", "Java", 200, null, "2024-01-02T12:00:00Z");
+
+        doReturn(Arrays.asList(repo1, repo2))
+                .when(gitHubRepositoryRepository).findSorted(any(Specification.class), any(Sort.class), anyInt());
+
+        RepositoryPage page = gitHubService.getStoredRepositoriesPage(null, null, "forks", null, 1).block();
+
+        assertNotNull(page);
+        RepositoryCursor cursor = RepositoryCursor.decode(page.getNextCursor(), RepositorySort.FORKS);
+        assertNull(cursor.getCount());
+        assertEquals(1L, cursor.getId());
+        assertNotNull(gitHubService.getStoredRepositoriesPage(null, null, "forks", page.getNextCursor(), 1).block());
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for a different sort")
+    void getStoredRepositoriesPage_mismatchedCursor() {
+        String cursor = new RepositoryCursor(RepositorySort.STARS, 100, null, 1L).encode();
+
+        ResponseStatusException thrown = assertThrows(ResponseStatusException.class,
+                () -> gitHubService.getStoredRepositoriesPage(null, null, "forks", cursor, 10).block());
+
+        assertEquals(HttpStatus.BAD_REQUEST, thrown.getStatusCode());
+        verify(gitHubRepositoryRepository, never()).findSorted(any(Specification.class), any(Sort.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor for the trending sort without querying the database")
+    void getStoredRepositoriesPage_trendingHasNoCursor() {
+        String cursor = new RepositoryCursor(RepositorySort.STARS, 100, null, 1L).encode();
+
+        ResponseStatusException thrown = assertThrows(ResponseStatusException.class,
+                () -> gitHubService.getStoredRepositoriesPage(null, null, "trending", cursor, 10).block());
+
+        assertEquals(HttpStatus.BAD_REQUEST, thrown.getStatusCode());
+        assertTrue(gitHubService.getStoredRepositoriesPage("Java", null, "trending", null, 10).block().getRepositories().isEmpty());
+        verify(gitHubRepositoryRepository, never()).findSorted(any(Specification.class), any(Sort.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject streaming the trending sort")
+    void streamStoredRepositories_rejectsTrending() {
+        ResponseStatusException thrown = assertThrows(ResponseStatusException.class,
+                () -> gitHubService.streamStoredRepositories(null, null, "trending").collectList().block());
+
+        assertEquals(HttpStatus.BAD_REQUEST, thrown.getStatusCode());
+
+        verify(gitHubRepositoryRepository, never()).findSorted(any(Specification.class), any(Sort.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should stream stored repositories by following keyset pages")
+    void streamStoredRepositories_followsPages() {
+        List<GitHubRepository> firstChunk = new ArrayList<>();
+        for (long id = 1; id <= 501; id++) {
+            firstChunk.add(createTestRepository(id, "repo" + id, "desc", "owner", "Java", (int) (1000 - id), 1, "2024-01-01T12:00:00Z"));
+        }
+        GitHubRepository last = createTestRepository(501L, "repo501", "desc", "owner", "Java", 499, 1, "2024-01-01T12:00:00Z");
+
+        doReturn(firstChunk, Collections.singletonList(last))
+                .when(gitHubRepositoryRepository).findSorted(any(Specification.class), any(Sort.class), anyInt());
+
+        List<GitHubRepository> result = gitHubService.streamStoredRepositories("Java", null, null).collectList().block();
+
+        assertNotNull(result);
+        assertEquals(501, result.size());
+        assertEquals(501L, result.get(500).getId());
+        verify(gitHubRepositoryRepository, times(2)).findSorted(any(Specification.class), any(Sort.class), anyInt());
     }
 }
@@ -0,0 +1,114 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositorySort;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+import com.github.searcher.repository.UpsertResult;
+
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryLeaderboardsTest {
+
+    @Mock
+    private GitHubRepositoryStore repositoryStore;
+
+    private GitHubRepository repository(long id, String language, int stars) {
+        return new GitHubRepository(id, "repo" + id, null, "owner", language, stars, 1, OffsetDateTime.parse("2024-01-01T00:00:00Z"));
+    }
+
+    private List<Long> ids(List<GitHubRepository> repositories) {
+        return repositories.stream().map(GitHubRepository::getId).toList();
+    }
+
+    private void upsert(RepositoryLeaderboards leaderboards, GitHubRepository... updated) {
+        leaderboards.onUpsert(new RepositoriesUpsertedEvent(new UpsertResult(List.of(updated),
+                Collections.emptyList(), List.of(updated), Collections.emptyList())));
+    }
+
+    /** A board of size 3 holding the top 4 of five Java rows ranked 1..5 by stars. */
+    @SuppressWarnings("unchecked")
+    private RepositoryLeaderboards loadedLeaderboards() {
+        when(repositoryStore.findFirst(any(Specification.class), eq(RepositorySort.STARS.toKeysetSort(true)), eq(5)))
+                .thenReturn(Mono.just(List.of(repository(1, "Java", 500), repository(2, "Java", 400),
+                        repository(3, "Java", 300), repository(4, "Java", 200), repository(5, "Java", 100))));
+        RepositoryLeaderboards leaderboards = new RepositoryLeaderboards(true, 3, 10, repositoryStore);
+        assertNull(leaderboards.top("Java", null, RepositorySort.STARS, 4).block());
+        return leaderboards;
+    }
+
+    @Test
+    @DisplayName("Should load a board on first use and answer top-N queries from it")
+    void top_servesLoadedBoard() {
+        RepositoryLeaderboards leaderboards = loadedLeaderboards();
+
+        assertEquals(List.of(1L, 2L, 3L), ids(leaderboards.top("JAVA", null, RepositorySort.STARS, 3).block()));
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(leaderboards.top("java", null, RepositorySort.STARS, 4).block()));
+        assertEquals(List.of(1L, 2L, 3L), ids(leaderboards.top("java", 250, RepositorySort.STARS, 4).block()));
+        assertNull(leaderboards.top("java", null, RepositorySort.STARS, 5).block());
+    }
+
+    @Test
+    @DisplayName("Should re-rank upserted rows and fall back once a demoted row leaves the board short")
+    @SuppressWarnings("unchecked")
+    void onUpsert_reranks() {
+        RepositoryLeaderboards leaderboards = loadedLeaderboards();
+
+        upsert(leaderboards, repository(5, "Java", 450));
+        assertEquals(List.of(1L, 5L, 2L, 3L), ids(leaderboards.top("java", null, RepositorySort.STARS, 4).block()));
+
+        upsert(leaderboards, repository(1, "Java", 50), repository(2, "Kotlin", 400));
+        assertEquals(List.of(5L, 3L), ids(leaderboards.top("java", null, RepositorySort.STARS, 2).block()));
+        assertNull(leaderboards.top("java", null, RepositorySort.STARS, 3).block());
+        verify(repositoryStore, times(1)).findFirst(any(Specification.class), any(Sort.class), eq(5));
+    }
+
+    @Test
+    @DisplayName("Should fall back without reloading a ready board that cannot answer a selective query")
+    @SuppressWarnings("unchecked")
+    void top_doesNotReloadReadyBoard() {
+        when(repositoryStore.findFirst(any(Specification.class), eq(RepositorySort.FORKS.toKeysetSort(true)), eq(5)))
+                .thenReturn(Mono.just(List.of(repository(1, "Java", 500), repository(2, "Java", 400),
+                        repository(3, "Java", 300), repository(4, "Java", 200), repository(5, "Java", 100))));
+        RepositoryLeaderboards leaderboards = new RepositoryLeaderboards(true, 3, 10, repositoryStore);
+        assertNull(leaderboards.top("java", null, RepositorySort.FORKS, 3).block());
+
+        assertNull(leaderboards.top("java", 450, RepositorySort.FORKS, 3).block());
+        assertNull(leaderboards.top("java", 450, RepositorySort.FORKS, 3).block());
+
+        assertEquals(List.of(1L, 2L, 3L), ids(leaderboards.top("java", null, RepositorySort.FORKS, 3).block()));
+        verify(repositoryStore, times(1)).findFirst(any(Specification.class), any(Sort.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should answer nothing when disabled")
+    @SuppressWarnings("unchecked")
+    void disabled_neverLoads() {
+        RepositoryLeaderboards leaderboards = new RepositoryLeaderboards(false, 3, 10, repositoryStore);
+
+        assertNull(leaderboards.top("java", null, RepositorySort.STARS, 3).block());
+        verify(repositoryStore, never()).findFirst(any(Specification.class), any(Sort.class), anyInt());
+    }
+}
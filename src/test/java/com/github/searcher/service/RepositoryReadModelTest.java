@@ -0,0 +1,123 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositorySort;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+import com.github.searcher.repository.UpsertResult;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryReadModelTest {
+
+    @Mock
+    private GitHubRepositoryStore repositoryStore;
+
+    private final List<Object> published = new ArrayList<>();
+
+    private GitHubRepository repository(long id, String language, int stars, int forks, String updated) {
+        return new GitHubRepository(id, "repo" + id, null, "owner", language, stars, forks, OffsetDateTime.parse(updated));
+    }
+
+    private List<Long> ids(List<GitHubRepository> repositories) {
+        return repositories.stream().map(GitHubRepository::getId).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private RepositoryReadModel loadedModel(GitHubRepository... rows) {
+        when(repositoryStore.findAll(any(Specification.class), any(Sort.class))).thenReturn(Mono.just(List.of(rows)));
+        RepositoryReadModel readModel = new RepositoryReadModel(true, repositoryStore, Schedulers.immediate(), published::add);
+        readModel.load();
+        return readModel;
+    }
+
+    @Test
+    @DisplayName("Should filter by language case-insensitively and by minimum stars, in database order")
+    void query_filtersAndSorts() {
+        RepositoryReadModel readModel = loadedModel(
+                repository(1, "Java", 50, 5, "2024-01-01T00:00:00Z"),
+                repository(2, "java", 300, 1, "2024-03-01T00:00:00Z"),
+                repository(3, "Go", 500, 9, "2024-02-01T00:00:00Z"),
+                repository(4, "JAVA", 300, 7, "2023-12-01T00:00:00Z"),
+                repository(5, null, 10, 2, "2024-04-01T00:00:00Z"));
+
+        assertTrue(readModel.isReady());
+        assertEquals(List.of(2L, 4L, 1L), ids(readModel.query("Java", null, RepositorySort.STARS)));
+        assertEquals(List.of(2L, 4L), ids(readModel.query("jAvA", 100, RepositorySort.STARS)));
+        assertEquals(List.of(3L, 4L, 1L, 5L, 2L), ids(readModel.query(null, null, RepositorySort.FORKS)));
+        assertEquals(List.of(2L, 3L, 4L), ids(readModel.query(null, 200, RepositorySort.LAST_UPDATED)));
+        assertEquals(List.of(5L, 2L, 3L, 1L, 4L), ids(readModel.query("", null, RepositorySort.LAST_UPDATED)));
+        assertTrue(readModel.query("Rust", null, RepositorySort.STARS).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply committed upserts before the next query")
+    void onUpsert_updatesRows() {
+        RepositoryReadModel readModel = loadedModel(
+                repository(1, "Java", 50, 5, "2024-01-01T00:00:00Z"),
+                repository(2, "Java", 300, 1, "2024-03-01T00:00:00Z"));
+
+        GitHubRepository updated = repository(1, "Java", 900, 5, "2024-05-01T00:00:00Z");
+        GitHubRepository inserted = repository(3, "Kotlin", 100, 0, "2024-05-02T00:00:00Z");
+        readModel.onUpsert(new RepositoriesUpsertedEvent(new UpsertResult(List.of(updated, inserted),
+                List.of(inserted), List.of(updated), Collections.emptyList())));
+
+        List<GitHubRepository> java = readModel.query("java", null, RepositorySort.STARS);
+        assertEquals(List.of(1L, 2L), ids(java));
+        assertEquals(900, java.get(0).getStarsCount());
+        assertEquals(List.of(3L), ids(readModel.query("kotlin", null, RepositorySort.STARS)));
+        assertEquals(1, published.size());
+        assertEquals(List.of(3L, 1L), ids(((ReadModelUpdatedEvent) published.get(0)).getChanged()));
+    }
+
+    @Test
+    @DisplayName("Should drop an upsert event carrying a row older than the stored one")
+    void onUpsert_dropsStaleRows() {
+        GitHubRepository current = repository(1, "Java", 900, 5, "2024-05-01T00:00:00Z");
+        current.setLastChecked(OffsetDateTime.parse("2024-05-02T00:00:00Z"));
+        RepositoryReadModel readModel = loadedModel(current, repository(2, "Java", 300, 1, "2024-03-01T00:00:00Z"));
+
+        GitHubRepository stale = repository(1, "Java", 50, 5, "2024-05-01T00:00:00Z");
+        stale.setLastChecked(OffsetDateTime.parse("2024-05-01T12:00:00Z"));
+        readModel.onUpsert(new RepositoriesUpsertedEvent(new UpsertResult(List.of(stale),
+                Collections.emptyList(), List.of(stale), Collections.emptyList())));
+
+        List<GitHubRepository> java = readModel.query("java", null, RepositorySort.STARS);
+        assertEquals(List.of(1L, 2L), ids(java));
+        assertEquals(900, java.get(0).getStarsCount());
+    }
+
+    @Test
+    @DisplayName("Should stay out of the way when disabled")
+    @SuppressWarnings("unchecked")
+    void disabled_neverLoads() {
+        RepositoryReadModel readModel = new RepositoryReadModel(false, repositoryStore, Schedulers.immediate(), published::add);
+
+        readModel.load();
+
+        assertFalse(readModel.isReady());
+        verify(repositoryStore, never()).findAll(any(Specification.class), any(Sort.class));
+    }
+}
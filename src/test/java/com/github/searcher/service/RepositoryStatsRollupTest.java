@@ -0,0 +1,35 @@
+package com.github.searcher.service;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryStatsRollupTest {
+
+    @Mock
+    private GitHubRepositoryStore repositoryStore;
+
+    @Test
+    @DisplayName("Should keep rolling up batches until one comes back short")
+    void rollUp_drainsLog() {
+        when(repositoryStore.rollUpDailyStats(100)).thenReturn(Mono.just(100), Mono.just(100), Mono.just(42));
+        RepositoryStatsRollup rollup = new RepositoryStatsRollup(true, Duration.ofMinutes(5), 100, repositoryStore);
+
+        StepVerifier.create(rollup.rollUp())
+                .expectNext(242L)
+                .verifyComplete();
+        verify(repositoryStore, times(3)).rollUpDailyStats(100);
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+import com.github.searcher.repository.UpsertResult;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryTextIndexTest {
+
+    @Mock
+    private GitHubRepositoryStore repositoryStore;
+
+    private GitHubRepository repository(long id, String name, String description, String owner, String language, int stars) {
+        return new GitHubRepository(id, name, description, owner, language, stars, 0, OffsetDateTime.parse("2024-01-01T00:00:00Z"));
+    }
+
+    private List<Long> ids(List<GitHubRepository> repositories) {
+        return repositories.stream().map(GitHubRepository::getId).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private RepositoryTextIndex loadedIndex(GitHubRepository... rows) {
+        when(repositoryStore.findAll(any(Specification.class), any(Sort.class))).thenReturn(Mono.just(List.of(rows)));
+        RepositoryTextIndex textIndex = new RepositoryTextIndex(true, repositoryStore, Schedulers.immediate());
+        textIndex.load();
+        return textIndex;
+    }
+
+    @Test
+    @DisplayName("Should rank name matches above description matches and combine terms")
+    void search_ranksByRelevance() {
+        RepositoryTextIndex textIndex = loadedIndex(
+                repository(1, "http-client", "A small reactive library", "alice", "Java", 10),
+                repository(2, "reactive-streams", "Backpressure for the JVM", "bob", "Java", 5),
+                repository(3, "reactive-http", "Reactive HTTP client", "carol", "Kotlin", 1),
+                repository(4, "dotfiles", "My configuration", "dave", null, 900));
+
+        assertTrue(textIndex.isReady());
+        assertEquals(List.of(3L, 2L, 1L), ids(textIndex.search("Reactive", null, null, 10).block()));
+        assertEquals(3L, textIndex.search("reactive http", null, null, 10).block().get(0).getId());
+        assertEquals(List.of(2L, 1L), ids(textIndex.search("reactive", "JAVA", null, 10).block()));
+        assertEquals(List.of(1L), ids(textIndex.search("reactive", null, 10, 10).block()));
+        assertEquals(List.of(3L), ids(textIndex.search("reactive", null, null, 1).block()));
+        assertTrue(textIndex.search("rust", null, null, 10).block().isEmpty());
+        assertTrue(textIndex.search("  ", null, null, 10).block().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should re-index committed upserts, dropping terms the new version no longer has")
+    void onUpsert_reindexes() {
+        RepositoryTextIndex textIndex = loadedIndex(
+                repository(1, "old-name", null, "alice", "Java", 10));
+
+        GitHubRepository renamed = repository(1, "new-name", "Fresh description", "alice", "Java", 10);
+        GitHubRepository inserted = repository(2, "other", "Also new", "bob", "Go", 3);
+        textIndex.onUpsert(new RepositoriesUpsertedEvent(new UpsertResult(List.of(renamed, inserted),
+                List.of(inserted), List.of(renamed), Collections.emptyList())));
+
+        assertTrue(textIndex.search("old", null, null, 10).block().isEmpty());
+        assertEquals(List.of(1L), ids(textIndex.search("fresh", null, null, 10).block()));
+        assertEquals(List.of(1L, 2L), ids(textIndex.search("new", null, null, 10).block()));
+    }
+
+    @Test
+    @DisplayName("Should split on anything that is not a letter or digit, lower-cased")
+    void tokenize_splitsAndLowercases() {
+        assertEquals(List.of("spring", "boot", "3", "webflux"), RepositoryTextIndex.tokenize(" Spring-Boot_3/WebFlux! "));
+        assertTrue(RepositoryTextIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stay out of the way when disabled")
+    @SuppressWarnings("unchecked")
+    void disabled_neverLoads() {
+        RepositoryTextIndex textIndex = new RepositoryTextIndex(false, repositoryStore, Schedulers.immediate());
+
+        textIndex.load();
+
+        assertFalse(textIndex.isReady());
+        verify(repositoryStore, never()).findAll(any(Specification.class), any(Sort.class));
+    }
+}
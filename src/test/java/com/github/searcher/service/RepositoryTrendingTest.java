@@ -0,0 +1,131 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.model.RepositoryChange;
+import com.github.searcher.repository.RepositoriesUpsertedEvent;
+import com.github.searcher.repository.UpsertResult;
+
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryTrendingTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2024-06-01T00:00:00Z");
+
+    @Mock
+    private GitHubRepositoryStore repositoryStore;
+
+    private GitHubRepository repository(long id, String language, int stars, OffsetDateTime checkedAt) {
+        GitHubRepository repository = new GitHubRepository(id, "repo" + id, null, "owner", language, stars, 1, T0);
+        repository.setLastChecked(checkedAt);
+        return repository;
+    }
+
+    private List<Long> ids(List<GitHubRepository> repositories) {
+        return repositories.stream().map(GitHubRepository::getId).toList();
+    }
+
+    private void upsert(RepositoryTrending trending, GitHubRepository... updated) {
+        trending.onUpsert(new RepositoriesUpsertedEvent(new UpsertResult(List.of(updated),
+                Collections.emptyList(), List.of(updated), Collections.emptyList())));
+    }
+
+    /** Java 1 and 2 and Go 3 start at 100 stars; a day later they have gained 100, 50 and 300. */
+    private RepositoryTrending observedTrending() {
+        RepositoryTrending trending = new RepositoryTrending(true, Duration.ofDays(7), Duration.ofHours(1), repositoryStore);
+        upsert(trending, repository(1, "Java", 100, T0), repository(2, "Java", 100, T0), repository(3, "Go", 100, T0));
+        OffsetDateTime day1 = T0.plusDays(1);
+        upsert(trending, repository(1, "Java", 200, day1), repository(2, "Java", 150, day1), repository(3, "Go", 400, day1));
+        return trending;
+    }
+
+    @Test
+    @DisplayName("Should rank repositories by stars gained, per language and overall")
+    void top_ranksByGain() {
+        RepositoryTrending trending = observedTrending();
+
+        assertEquals(List.of(1L, 2L), ids(trending.top("JAVA", null, 10)));
+        assertEquals(List.of(3L, 1L), ids(trending.top(null, null, 2)));
+        assertEquals(List.of(1L), ids(trending.top("java", 180, 10)));
+        assertTrue(trending.top("kotlin", null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should decay older gains by the half-life and ignore out-of-order observations")
+    void observe_decaysAndOrdersByCheckTime() {
+        RepositoryTrending trending = observedTrending();
+        OffsetDateTime day8 = T0.plusDays(8);
+
+        upsert(trending, repository(2, "Java", 250, day8));
+        upsert(trending, repository(1, "Java", 900, T0.plusHours(12)));
+
+        assertEquals(50, trending.score(1, day8), 1e-6);
+        assertEquals(125, trending.score(2, day8), 1e-6);
+        assertEquals(List.of(2L, 1L), ids(trending.top("java", null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should drop repositories whose net change is a loss and move rows that change language")
+    void observe_unranksLossesAndFollowsLanguage() {
+        RepositoryTrending trending = observedTrending();
+
+        upsert(trending, repository(2, "Java", 10, T0.plusDays(2)), repository(1, "Kotlin", 200, T0.plusDays(2)));
+
+        assertTrue(trending.top("java", null, 10).isEmpty());
+        assertEquals(List.of(1L), ids(trending.top("kotlin", null, 10)));
+        assertEquals(List.of(3L, 1L), ids(trending.top(null, null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the ranking from the change log at startup")
+    void load_replaysChangeLog() {
+        when(repositoryStore.findChanges(eq(0L), any(OffsetDateTime.class), eq(500))).thenReturn(Mono.just(List.of(
+                change(1, 7, 100, T0), change(2, 8, 100, T0), change(1, 57, 300, T0.plusDays(1)), change(2, 58, 200, T0.plusDays(1)))));
+        RepositoryTrending trending = new RepositoryTrending(true, Duration.ofDays(7), Duration.ofHours(1), repositoryStore);
+
+        trending.load();
+        trending.stop();
+
+        assertEquals(List.of(1L, 2L), ids(trending.top("java", null, 10)));
+        assertEquals(200, trending.score(1, T0.plusDays(1)), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Should evict repositories not observed within four half-lives")
+    void evict_forgetsStaleRepositories() {
+        RepositoryTrending trending = observedTrending();
+        upsert(trending, repository(2, "Java", 150, T0.plusDays(20)), repository(4, "Java", 10, T0.plusDays(20)));
+
+        assertEquals(0, trending.evict(T0.plusDays(29)));
+        assertEquals(2, trending.evict(T0.plusDays(30)));
+
+        assertEquals(2, trending.size());
+        assertEquals(List.of(2L), ids(trending.top(null, null, 10)));
+        assertEquals(0, trending.score(1, T0.plusDays(30)), 1e-6);
+    }
+
+    private RepositoryChange change(long repositoryId, long version, int stars, OffsetDateTime changedAt) {
+        GitHubRepository repository = repository(repositoryId, "Java", stars, changedAt);
+        RepositoryChange change = new RepositoryChange(repository, RepositoryChange.Type.UPDATE, changedAt);
+        change.setVersion(version);
+        change.setRepository(repository);
+        return change;
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.searcher.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.searcher.model.GitHubRepository;
+import com.github.searcher.repository.UpsertResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryWriteBehindBufferTest {
+
+    @Mock
+    private GitHubRepositoryStore repositoryStore;
+
+    @Captor
+    private ArgumentCaptor<Collection<GitHubRepository>> batchCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GitHubRepository repository(long id, int stars) {
+        return new GitHubRepository(id, "repo" + id, null, "owner", "Java", stars, 1, OffsetDateTime.parse("2024-01-01T00:00:00Z"));
+    }
+
+    private RepositoryWriteBehindBuffer buffer(int capacity, int batchSize, Duration flushInterval, Duration offerTimeout) {
+        return new RepositoryWriteBehindBuffer(true, capacity, batchSize, flushInterval, offerTimeout, Duration.ofSeconds(5),
+                repositoryStore, new GitHubMetrics(meterRegistry), meterRegistry);
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should flush once a batch is full, keeping only the latest version of each repository")
+    void submit_flushesCoalescedBatch() {
+        when(repositoryStore.upsertAll(anyCollection())).thenReturn(Mono.just(UpsertResult.empty()));
+        RepositoryWriteBehindBuffer buffer = buffer(100, 3, Duration.ofHours(1), Duration.ofSeconds(1));
+
+        buffer.submit(List.of(repository(1, 10), repository(2, 20))).block();
+        buffer.submit(List.of(repository(2, 25), repository(3, 30))).block();
+
+        verify(repositoryStore, timeout(1000)).upsertAll(batchCaptor.capture());
+        assertEquals(List.of(10, 25, 30), batchCaptor.getValue().stream().map(GitHubRepository::getStarsCount).toList());
+        assertEquals(1, meterRegistry.get("github.persistence.write-behind.coalesced").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should flush a partial batch after the flush interval")
+    void start_flushesOnInterval() {
+        when(repositoryStore.upsertAll(anyCollection())).thenReturn(Mono.just(UpsertResult.empty()));
+        RepositoryWriteBehindBuffer buffer = buffer(100, 50, Duration.ofMillis(50), Duration.ofSeconds(1));
+        buffer.start();
+        try {
+            buffer.submit(List.of(repository(1, 10))).block();
+
+            verify(repositoryStore, timeout(1000)).upsertAll(anyCollection());
+        } finally {
+            buffer.drain();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hold submissions while the queue is full and accept them once a flush makes room")
+    void submit_waitsWhileFull() {
+        when(repositoryStore.upsertAll(anyCollection())).thenReturn(Mono.just(UpsertResult.empty()));
+        RepositoryWriteBehindBuffer buffer = buffer(2, 100, Duration.ofHours(1), Duration.ofSeconds(5));
+        buffer.submit(List.of(repository(1, 10), repository(2, 20))).block();
+
+        StepVerifier.create(buffer.submit(List.of(repository(3, 30))))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .then(buffer::flush)
+                .verifyComplete();
+        assertEquals(1, buffer.pendingCount());
+    }
+
+    @Test
+    @DisplayName("Should fail a submission with 503 when the queue stays full past the offer timeout")
+    void submit_timesOutWhenFull() {
+        RepositoryWriteBehindBuffer buffer = buffer(1, 100, Duration.ofHours(1), Duration.ofMillis(50));
+        buffer.submit(List.of(repository(1, 10))).block();
+
+        StepVerifier.create(buffer.submit(List.of(repository(2, 20))))
+                .expectErrorMatches(error -> error instanceof ResponseStatusException
+                        && ((ResponseStatusException) error).getStatusCode().value() == 503)
+                .verify();
+        assertEquals(1, buffer.pendingCount());
+    }
+
+    @Test
+    @DisplayName("Should not admit a submission that already failed with 503 when a flush later makes room")
+    void submit_expiredSubmissionIsNotWritten() {
+        when(repositoryStore.upsertAll(anyCollection())).thenReturn(Mono.just(UpsertResult.empty()));
+        RepositoryWriteBehindBuffer buffer = buffer(1, 100, Duration.ofHours(1), Duration.ofMillis(50));
+        buffer.submit(List.of(repository(1, 10))).block();
+
+        StepVerifier.create(buffer.submit(List.of(repository(2, 20))))
+                .expectError(ResponseStatusException.class)
+                .verify();
+        buffer.flush();
+
+        verify(repositoryStore, timeout(1000)).upsertAll(batchCaptor.capture());
+        assertEquals(List.of(1L), batchCaptor.getValue().stream().map(GitHubRepository::getId).toList());
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    @DisplayName("Should queue copies, so later changes to the submitted rows are not written")
+    void submit_queuesCopies() {
+        when(repositoryStore.upsertAll(anyCollection())).thenReturn(Mono.just(UpsertResult.empty()));
+        RepositoryWriteBehindBuffer buffer = buffer(100, 100, Duration.ofHours(1), Duration.ofSeconds(1));
+        GitHubRepository submitted = repository(1, 10);
+        buffer.submit(List.of(submitted)).block();
+
+        submitted.setStarsCount(99);
+        buffer.flush();
+
+        verify(repositoryStore, timeout(1000)).upsertAll(batchCaptor.capture());
+        GitHubRepository written = batchCaptor.getValue().iterator().next();
+        assertEquals(10, written.getStarsCount());
+        assertNotSame(submitted, written);
+    }
+
+    @Test
+    @DisplayName("Should write everything still queued when draining on shutdown")
+    void drain_writesPending() {
+        when(repositoryStore.upsertAll(anyCollection())).thenReturn(Mono.just(UpsertResult.empty()));
+        RepositoryWriteBehindBuffer buffer = buffer(100, 2, Duration.ofHours(1), Duration.ofSeconds(1));
+        buffer.submit(List.of(repository(1, 10))).block();
+        buffer.submit(List.of(repository(2, 20), repository(3, 30))).block();
+
+        buffer.drain();
+
+        verify(repositoryStore, times(2)).upsertAll(anyCollection());
+        assertEquals(0, buffer.pendingCount());
+    }
+}